@@ -0,0 +1,90 @@
+package com.learning.recipeapi.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.*;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.Duration;
+
+// HTTP client used for Spoonacular calls
+// Pooled keep-alive connections plus hard timeouts, so a slow upstream can only hold a request
+// thread for a bounded time. Every setting comes from http.client.* in application.properties
+@Configuration
+public class HttpClientConfig {
+
+  @Value("${http.client.max-connections:50}")
+  private int maxConnections;
+
+  @Value("${http.client.max-connections-per-route:20}")
+  private int maxConnectionsPerRoute;
+
+  @Value("${http.client.connect-timeout:2s}")
+  private Duration connectTimeout;
+
+  @Value("${http.client.read-timeout:5s}")
+  private Duration readTimeout;
+
+  // How long to wait for a free pooled connection before failing
+  @Value("${http.client.pool-acquire-timeout:1s}")
+  private Duration poolAcquireTimeout;
+
+  @Value("${http.client.idle-eviction:30s}")
+  private Duration idleEviction;
+
+  // Recycle connections periodically so DNS changes on the upstream are picked up
+  @Value("${http.client.connection-ttl:5m}")
+  private Duration connectionTtl;
+
+  @Bean(destroyMethod = "close")
+  public PoolingHttpClientConnectionManager httpConnectionManager(MeterRegistry meterRegistry) {
+    PoolingHttpClientConnectionManager connectionManager =
+        PoolingHttpClientConnectionManagerBuilder.create()
+            .setMaxConnTotal(maxConnections)
+            .setMaxConnPerRoute(maxConnectionsPerRoute)
+            .setDefaultConnectionConfig(
+                ConnectionConfig.custom()
+                    .setConnectTimeout(Timeout.of(connectTimeout))
+                    .setSocketTimeout(Timeout.of(readTimeout))
+                    .setTimeToLive(TimeValue.of(connectionTtl))
+                    .build())
+            .build();
+
+    // httpcomponents.httpclient.pool.* gauges: leased, available, pending, max
+    new PoolingHttpClientConnectionManagerMetricsBinder(connectionManager, "spoonacular")
+        .bindTo(meterRegistry);
+    return connectionManager;
+  }
+
+  @Bean(destroyMethod = "close")
+  public CloseableHttpClient httpClient(PoolingHttpClientConnectionManager httpConnectionManager) {
+    // Content compression is on by default: requests send Accept-Encoding: gzip, deflate
+    // and responses are decompressed transparently
+    return HttpClients.custom()
+        .setConnectionManager(httpConnectionManager)
+        .setDefaultRequestConfig(
+            RequestConfig.custom()
+                .setConnectionRequestTimeout(Timeout.of(poolAcquireTimeout))
+                .setResponseTimeout(Timeout.of(readTimeout))
+                .build())
+        .evictExpiredConnections()
+        .evictIdleConnections(TimeValue.of(idleEviction))
+        .build();
+  }
+
+  @Bean
+  public RestTemplate restTemplate(CloseableHttpClient httpClient) {
+    return new RestTemplate(new HttpComponentsClientHttpRequestFactory(httpClient));
+  }
+}
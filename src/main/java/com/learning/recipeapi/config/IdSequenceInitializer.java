@@ -0,0 +1,60 @@
+package com.learning.recipeapi.config;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.sql.init.dependency.DependsOnDatabaseInitialization;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+// Recipe and Ingredient ids used to come from IDENTITY columns. The sequences that replaced
+// them start at 1, which would collide with existing rows on a database that already has
+// data, so on PostgreSQL each sequence is moved past the current MAX(id) at startup.
+// Marked as depending on database initialization so it runs after Flyway has created the sequences
+@Component
+@DependsOnDatabaseInitialization
+public class IdSequenceInitializer {
+  private static final Logger logger = LoggerFactory.getLogger(IdSequenceInitializer.class);
+
+  // sequence -> table, allocation size matches @SequenceGenerator on the entities
+  private static final Map<String, String> SEQUENCES =
+      Map.of("recipe_seq", "recipe", "ingredient_seq", "ingredient");
+  private static final int ALLOCATION_SIZE = 50;
+
+  private final JdbcTemplate jdbcTemplate;
+
+  @Autowired
+  public IdSequenceInitializer(JdbcTemplate jdbcTemplate) {
+    this.jdbcTemplate = jdbcTemplate;
+  }
+
+  @PostConstruct
+  public void alignSequences() {
+    try {
+      String product =
+          jdbcTemplate.execute(
+              (ConnectionCallback<String>)
+                  connection -> connection.getMetaData().getDatabaseProductName());
+      if (!"PostgreSQL".equalsIgnoreCase(product)) {
+        return;
+      }
+      for (Map.Entry<String, String> entry : SEQUENCES.entrySet()) {
+        String sequence = entry.getKey();
+        String table = entry.getValue();
+        // never moves a sequence backwards, so this is safe to run on every startup
+        jdbcTemplate.queryForObject(
+            "SELECT setval('" + sequence + "', GREATEST("
+                + "(SELECT COALESCE(MAX(id), 0) FROM " + table + ") + " + ALLOCATION_SIZE + ", "
+                + "(SELECT last_value FROM " + sequence + ")))",
+            Long.class);
+      }
+    } catch (DataAccessException e) {
+      logger.warn("Could not align id sequences: {}", e.getMessage());
+    }
+  }
+}
@@ -0,0 +1,114 @@
+package com.learning.recipeapi.config;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.micrometer.tagged.TaggedBulkheadMetrics;
+import io.github.resilience4j.micrometer.tagged.TaggedCircuitBreakerMetrics;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.time.Duration;
+
+// Circuit breaker and bulkhead for Spoonacular calls (see SpoonacularService)
+// - the breaker opens when too many recent calls failed, then fails fast until a few half-open
+//   probe calls succeed
+// - the bulkhead caps how many request threads can be waiting on Spoonacular at once, so a slow
+//   upstream can't tie up the threads that serve local-only endpoints
+@Configuration
+public class ResilienceConfig {
+
+  public static final String SPOONACULAR = "spoonacular";
+
+  @Value("${spoonacular.circuit-breaker.failure-rate-threshold:50}")
+  private float failureRateThreshold;
+
+  @Value("${spoonacular.circuit-breaker.sliding-window-size:20}")
+  private int slidingWindowSize;
+
+  @Value("${spoonacular.circuit-breaker.minimum-calls:10}")
+  private int minimumCalls;
+
+  @Value("${spoonacular.circuit-breaker.slow-call-threshold:3s}")
+  private Duration slowCallThreshold;
+
+  @Value("${spoonacular.circuit-breaker.open-duration:30s}")
+  private Duration openDuration;
+
+  @Value("${spoonacular.circuit-breaker.half-open-calls:3}")
+  private int halfOpenCalls;
+
+  @Value("${spoonacular.bulkhead.max-concurrent-calls:20}")
+  private int maxConcurrentCalls;
+
+  @Value("${spoonacular.bulkhead.max-wait:50ms}")
+  private Duration bulkheadMaxWait;
+
+  @Bean
+  public CircuitBreakerRegistry circuitBreakerRegistry(MeterRegistry meterRegistry) {
+    CircuitBreakerConfig config =
+        CircuitBreakerConfig.custom()
+            .slidingWindowType(CircuitBreakerConfig.SlidingWindowType.COUNT_BASED)
+            .slidingWindowSize(slidingWindowSize)
+            .minimumNumberOfCalls(minimumCalls)
+            .failureRateThreshold(failureRateThreshold)
+            .slowCallDurationThreshold(slowCallThreshold)
+            .waitDurationInOpenState(openDuration)
+            .permittedNumberOfCallsInHalfOpenState(halfOpenCalls)
+            .automaticTransitionFromOpenToHalfOpenEnabled(true)
+            // Only upstream trouble counts: timeouts/IO errors, 5xx and 429 (quota exhausted).
+            // A 404 for an unknown recipe says nothing about Spoonacular's health
+            .recordException(
+                e ->
+                    e instanceof ResourceAccessException
+                        || e instanceof HttpServerErrorException
+                        || e instanceof HttpClientErrorException.TooManyRequests)
+            .ignoreExceptions(BulkheadFullException.class)
+            .build();
+    CircuitBreakerRegistry registry = CircuitBreakerRegistry.of(config);
+    // resilience4j.circuitbreaker.state / .calls / .not.permitted.calls / .failure.rate
+    TaggedCircuitBreakerMetrics.ofCircuitBreakerRegistry(registry).bindTo(meterRegistry);
+    return registry;
+  }
+
+  @Bean
+  public CircuitBreaker spoonacularCircuitBreaker(CircuitBreakerRegistry circuitBreakerRegistry) {
+    return circuitBreakerRegistry.circuitBreaker(SPOONACULAR);
+  }
+
+  @Bean
+  public BulkheadRegistry bulkheadRegistry(MeterRegistry meterRegistry) {
+    BulkheadConfig config =
+        BulkheadConfig.custom()
+            .maxConcurrentCalls(maxConcurrentCalls)
+            .maxWaitDuration(bulkheadMaxWait)
+            .build();
+    BulkheadRegistry registry = BulkheadRegistry.of(config);
+    // resilience4j.bulkhead.available.concurrent.calls / .max.allowed.concurrent.calls
+    TaggedBulkheadMetrics.ofBulkheadRegistry(registry).bindTo(meterRegistry);
+    return registry;
+  }
+
+  @Bean
+  public Bulkhead spoonacularBulkhead(
+      BulkheadRegistry bulkheadRegistry, MeterRegistry meterRegistry) {
+    Bulkhead bulkhead = bulkheadRegistry.bulkhead(SPOONACULAR);
+    Counter rejected =
+        Counter.builder("resilience4j.bulkhead.rejected.calls")
+            .tag("name", SPOONACULAR)
+            .description("Calls turned away because the bulkhead was full")
+            .register(meterRegistry);
+    bulkhead.getEventPublisher().onCallRejected(event -> rejected.increment());
+    return bulkhead;
+  }
+}
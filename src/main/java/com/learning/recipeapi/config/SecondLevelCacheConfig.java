@@ -0,0 +1,125 @@
+package com.learning.recipeapi.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.JCacheMetrics;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.spi.RegionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.time.Duration;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+// Hibernate second-level cache and query cache, kept in bounded Caffeine caches in this JVM.
+// - entity regions hold recipes, users and ingredients by id, so findById and the association
+//   loads behind a list don't go to PostgreSQL once a row is hot
+// - the query region holds the results of the finders marked cacheable in RecipeRepository and
+//   UserRepository; Hibernate throws a cached result away as soon as any of its tables is written
+// Hibernate keeps the regions in step with every write it makes (save, delete, JPQL updates).
+// Plain JDBC writes bypass it and have to evict the region themselves (see IngredientDictionary)
+// The regions are per JVM and nothing invalidates them across instances: a write through one
+// instance is only seen by the others once their copy expires. That is why the recipe, user and
+// query TTLs are short - they are the upper bound on how stale another instance can be
+@Configuration
+public class SecondLevelCacheConfig {
+
+  // region names used by the @Cache annotations on the entities
+  private static final String RECIPE = "recipe";
+  private static final String RECIPE_INGREDIENTS = "recipe.ingredients";
+  private static final String USER = "user";
+  private static final String INGREDIENT = "ingredient";
+
+  @Value("${recipe.cache.recipe.max-size:10000}")
+  private long recipeMaxSize;
+
+  @Value("${recipe.cache.recipe.ttl:1m}")
+  private Duration recipeTtl;
+
+  @Value("${recipe.cache.user.max-size:5000}")
+  private long userMaxSize;
+
+  @Value("${recipe.cache.user.ttl:1m}")
+  private Duration userTtl;
+
+  @Value("${recipe.cache.ingredient.max-size:20000}")
+  private long ingredientMaxSize;
+
+  @Value("${recipe.cache.ingredient.ttl:1h}")
+  private Duration ingredientTtl;
+
+  @Value("${recipe.cache.query.max-size:2000}")
+  private long queryMaxSize;
+
+  @Value("${recipe.cache.query.ttl:1m}")
+  private Duration queryTtl;
+
+  @Bean(destroyMethod = "close")
+  public CacheManager hibernateCacheManager(MeterRegistry meterRegistry) {
+    // A URI of its own per application context, so test contexts living side by side in one JVM
+    // don't share (and fight over) the same regions
+    CacheManager cacheManager =
+        Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+            .getCacheManager(
+                URI.create("hibernate-" + UUID.randomUUID()), getClass().getClassLoader());
+
+    createRegion(cacheManager, meterRegistry, RECIPE, recipeMaxSize, recipeTtl);
+    createRegion(cacheManager, meterRegistry, RECIPE_INGREDIENTS, recipeMaxSize, recipeTtl);
+    createRegion(cacheManager, meterRegistry, USER, userMaxSize, userTtl);
+    createRegion(cacheManager, meterRegistry, INGREDIENT, ingredientMaxSize, ingredientTtl);
+    createRegion(
+        cacheManager,
+        meterRegistry,
+        RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME,
+        queryMaxSize,
+        queryTtl);
+    // Last write time per table, checked before any cached query result is used. It has one
+    // entry per table and must never lose one early, so it is the one region without limits
+    createRegion(
+        cacheManager,
+        meterRegistry,
+        RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME,
+        null,
+        null);
+    return cacheManager;
+  }
+
+  @Bean
+  public HibernatePropertiesCustomizer secondLevelCacheCustomizer(
+      CacheManager hibernateCacheManager) {
+    return properties -> {
+      properties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, true);
+      properties.put(AvailableSettings.USE_QUERY_CACHE, true);
+      properties.put(AvailableSettings.CACHE_REGION_FACTORY, "jcache");
+      properties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+      // every region is sized above - an unknown region name is a mistake, not a new cache
+      properties.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+    };
+  }
+
+  private void createRegion(
+      CacheManager cacheManager,
+      MeterRegistry meterRegistry,
+      String name,
+      Long maxSize,
+      Duration ttl) {
+    CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+    if (maxSize != null) {
+      configuration.setMaximumSize(OptionalLong.of(maxSize));
+    }
+    if (ttl != null) {
+      configuration.setExpireAfterWrite(OptionalLong.of(ttl.toNanos()));
+    }
+    configuration.setStatisticsEnabled(true);
+    // hit/miss/put/eviction counts per region under /actuator/metrics/cache.*{cache=<region>}
+    JCacheMetrics.monitor(meterRegistry, cacheManager.createCache(name, configuration));
+  }
+}
@@ -1,8 +1,13 @@
 package com.learning.recipeapi.config;
 
+import com.learning.recipeapi.diagnostics.DiagnosticCategory;
+import com.learning.recipeapi.diagnostics.Diagnostics;
 import com.learning.recipeapi.security.JwtAuthenticationFilter;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.autoconfigure.security.servlet.EndpointRequest;
+import org.springframework.boot.actuate.health.HealthEndpoint;
+import org.springframework.boot.actuate.info.InfoEndpoint;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
@@ -11,7 +16,6 @@ import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
-import org.springframework.web.client.RestTemplate;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
@@ -21,10 +25,12 @@ import java.util.Arrays;
 @Configuration
 public class SecurityConfig {
   private final JwtAuthenticationFilter jwtAuthenticationFilter;
+  private final Diagnostics diagnostics;
 
   @Autowired
-  public SecurityConfig(JwtAuthenticationFilter jwtAuthenticationFilter) {
+  public SecurityConfig(JwtAuthenticationFilter jwtAuthenticationFilter, Diagnostics diagnostics) {
     this.jwtAuthenticationFilter = jwtAuthenticationFilter;
+    this.diagnostics = diagnostics;
   }
 
   @Bean
@@ -39,6 +45,12 @@ public class SecurityConfig {
             auth ->
                 auth.requestMatchers("/api/auth/register", "/api/auth/login")
                     .permitAll()
+                    // anyone can register, so signed-in users only get health and info. Metrics,
+                    // the Spoonacular stats and changing diagnostics sampling are for admins
+                    .requestMatchers(EndpointRequest.to(HealthEndpoint.class, InfoEndpoint.class))
+                    .authenticated()
+                    .requestMatchers(EndpointRequest.toAnyEndpoint())
+                    .hasRole("ADMIN")
                     .anyRequest()
                     .authenticated())
         .sessionManagement(
@@ -48,21 +60,21 @@ public class SecurityConfig {
                     exception ->
                             exception.accessDeniedHandler(
                                     (request, response, accessDeniedException) -> {
-                                      System.out.println("Exception: " + accessDeniedException.getMessage());
-                                      accessDeniedException.printStackTrace();
+                                      diagnostics.record(
+                                              DiagnosticCategory.ACCESS_DENIED,
+                                              "Access denied for {}: {}",
+                                              request.getRequestURI(),
+                                              accessDeniedException.getMessage());
                                       response.sendError(
-                                              HttpServletResponse.SC_FORBIDDEN, accessDeniedException.getMessage());
+                                              HttpServletResponse.SC_FORBIDDEN,
+                                              accessDeniedException.getMessage());
                                     }))
-            .cors(cors -> cors.configurationSource(corsConfigurationSource()));  // ← Part of the chain
+            // ← Part of the chain
+            .cors(cors -> cors.configurationSource(corsConfigurationSource()));
 
     return http.build();
   }
 
-  @Bean
-  public RestTemplate restTemplate() {
-    return new RestTemplate();
-  }
-
   @Bean
   public CorsConfigurationSource corsConfigurationSource() {
     CorsConfiguration configuration = new CorsConfiguration();
@@ -1,6 +1,9 @@
 package com.learning.recipeapi.config;
 
 import com.learning.recipeapi.Category;
+import com.learning.recipeapi.RecipeSource;
+import com.learning.recipeapi.dto.RecipeView;
+import com.learning.recipeapi.search.MatchMode;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.core.convert.converter.Converter;
 import org.springframework.format.FormatterRegistry;
@@ -13,6 +16,9 @@ public class WebConfig implements WebMvcConfigurer {
   @Override
   public void addFormatters(FormatterRegistry registry) {
     registry.addConverter(new StringToCategoryConverter());
+    registry.addConverter(new StringToMatchModeConverter());
+    registry.addConverter(new StringToRecipeViewConverter());
+    registry.addConverter(new StringToRecipeSourceConverter());
   }
 
   private static class StringToCategoryConverter implements Converter<String, Category> {
@@ -21,4 +27,28 @@ public class WebConfig implements WebMvcConfigurer {
       return Category.valueOf(source.toUpperCase());
     }
   }
+
+  // mode=all / mode=ANY for ingredient searches
+  private static class StringToMatchModeConverter implements Converter<String, MatchMode> {
+    @Override
+    public MatchMode convert(String source) {
+      return MatchMode.valueOf(source.toUpperCase());
+    }
+  }
+
+  // view=summary / view=FULL on list endpoints
+  private static class StringToRecipeViewConverter implements Converter<String, RecipeView> {
+    @Override
+    public RecipeView convert(String source) {
+      return RecipeView.valueOf(source.toUpperCase());
+    }
+  }
+
+  // source=user_created / source=SPOONACULAR on /recipes/filter
+  private static class StringToRecipeSourceConverter implements Converter<String, RecipeSource> {
+    @Override
+    public RecipeSource convert(String source) {
+      return RecipeSource.valueOf(source.toUpperCase());
+    }
+  }
 }
@@ -1,11 +1,13 @@
 package com.learning.recipeapi.controller;
 
 import com.learning.recipeapi.Category;
+import com.learning.recipeapi.dto.RecipeView;
 import com.learning.recipeapi.entity.Recipe;
 import com.learning.recipeapi.service.RecipeService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
 import java.util.List;
@@ -21,44 +23,78 @@ public class AsyncRecipeController {
     this.recipeService = recipeService;
   }
 
+  // ?view=summary works the same way as on RecipeController
   @GetMapping("/recipes")
-  public CompletableFuture<Page<Recipe>> getAllRecipesAsync(Pageable pageable) {
-    return recipeService.getAllRecipesAsync(pageable);
+  public CompletableFuture<?> getAllRecipesAsync(
+      Pageable pageable,
+      @RequestParam(required = false) String cursor,
+      @RequestParam(defaultValue = "full") RecipeView view) {
+    boolean summary = view == RecipeView.SUMMARY;
+    if (cursor != null) {
+      return summary
+          ? recipeService.getRecipeSummaryFeedAsync(
+              cursor, pageable.getPageSize(), pageable.getSort())
+          : recipeService.getRecipeFeedAsync(cursor, pageable.getPageSize(), pageable.getSort());
+    }
+    return summary
+        ? recipeService.getAllRecipeSummariesAsync(pageable)
+        : recipeService.getAllRecipesAsync(pageable);
   }
 
   @GetMapping("/recipes/{id}")
-  public CompletableFuture<Recipe> getRecipeByIdAsync(@PathVariable Integer id) {
-    return recipeService.getRecipeByIdAsync(id);
+  public CompletableFuture<ResponseEntity<byte[]>> getRecipeByIdAsync(
+      @PathVariable Integer id, @RequestHeader HttpHeaders headers) {
+    return recipeService
+        .getRenderedRecipeAsync(id, RecipeETag.isCurrent(headers))
+        .thenApply(rendered -> RecipeETag.ok(rendered, headers));
   }
 
   @GetMapping("/recipes/search")
-  public CompletableFuture<List<Recipe>> searchRecipesAsync(
+  public CompletableFuture<? extends List<?>> searchRecipesAsync(
       @RequestParam(required = false) String name,
-      @RequestParam(required = false) String ingredient) {
+      @RequestParam(required = false) String ingredient,
+      @RequestParam(defaultValue = "full") RecipeView view) {
+    if (view == RecipeView.SUMMARY) {
+      if (name != null) {
+        return recipeService.getRecipeSummariesByNameAsync(name);
+      }
+      if (ingredient != null) {
+        return recipeService.getRecipeSummariesByIngredientAsync(ingredient);
+      }
+      return CompletableFuture.completedFuture(List.of());
+    }
     if (name != null) {
-      return recipeService.getRecipeByIngredientAsync(name);
+      return recipeService.getRecipesByNameAsync(name);
     }
     if (ingredient != null) {
-      return recipeService.getRecipesByNameAsync(ingredient);
+      return recipeService.getRecipeByIngredientAsync(ingredient);
     }
     return CompletableFuture.completedFuture(List.of());
   }
 
   @GetMapping("/recipes/category/{category}")
-  public CompletableFuture<List<Recipe>> getRecipesByCategoryAsync(
-      @PathVariable Category category) {
-    return recipeService.getRecipeByCategoryAsync(category);
+  public CompletableFuture<? extends List<?>> getRecipesByCategoryAsync(
+      @PathVariable Category category, @RequestParam(defaultValue = "full") RecipeView view) {
+    return view == RecipeView.SUMMARY
+        ? recipeService.getRecipeSummariesByCategoryAsync(category)
+        : recipeService.getRecipeByCategoryAsync(category);
   }
 
   @GetMapping("/recipes/quick")
-  public CompletableFuture<List<Recipe>> getRecipesLessThanThirtyMinsAsync(
-      @RequestParam(defaultValue = "30") Integer max) {
-    return recipeService.getRecipeByPrepTimeLessThanAsync(max);
+  public CompletableFuture<? extends List<?>> getRecipesLessThanThirtyMinsAsync(
+      @RequestParam(defaultValue = "30") Integer max,
+      @RequestParam(defaultValue = "full") RecipeView view) {
+    return view == RecipeView.SUMMARY
+        ? recipeService.getRecipeSummariesByPrepTimeLessThanAsync(max)
+        : recipeService.getRecipeByPrepTimeLessThanAsync(max);
   }
 
   @GetMapping("/recipes/servings/{count}")
-  public CompletableFuture<List<Recipe>> getRecipesByServingsAsync(@PathVariable Integer count) {
-    return recipeService.getRecipesByServingsAsync(count);
+  public CompletableFuture<? extends List<?>> getRecipesByServingsAsync(
+      @PathVariable Integer count, @RequestParam(defaultValue = "full") RecipeView view) {
+    return view == RecipeView.SUMMARY
+        ? recipeService.getRecipeSummariesByServingsAsync(count)
+        : recipeService.getRecipesByServingsAsync(count);
   }
 
   @PostMapping("/recipes")
@@ -1,18 +1,30 @@
 package com.learning.recipeapi.controller;
 
 import com.learning.recipeapi.Category;
+import com.learning.recipeapi.RecipeSource;
+import com.learning.recipeapi.dto.BatchRecipeRequest;
+import com.learning.recipeapi.dto.BatchRecipeResult;
+import com.learning.recipeapi.dto.BulkImportRequest;
+import com.learning.recipeapi.dto.BulkImportResult;
+import com.learning.recipeapi.dto.DuplicateCluster;
+import com.learning.recipeapi.dto.RecipeFilter;
+import com.learning.recipeapi.dto.RecipeView;
 import com.learning.recipeapi.dto.SpoonacularSearchResponse;
 import com.learning.recipeapi.entity.Recipe;
 import com.learning.recipeapi.entity.User;
+import com.learning.recipeapi.search.MatchMode;
 import com.learning.recipeapi.service.RecipeService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.util.MultiValueMap;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PageableDefault;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -28,50 +40,134 @@ public class RecipeController {
     this.recipeService = recipeService;
   }
 
+  // Passing cursor (empty for the first page) switches to keyset pagination:
+  // the response has a nextCursor instead of page numbers, and deep pages stay fast.
+  // List endpoints take ?view=summary to return RecipeSummary rows instead of full recipes
   @GetMapping("/recipes")
-  public Page<Recipe> getAllRecipes(Pageable pageable) {
+  public ResponseEntity<?> getAllRecipes(
+      Pageable pageable,
+      @RequestParam(required = false) String cursor,
+      @RequestParam(defaultValue = "full") RecipeView view) {
+    boolean summary = view == RecipeView.SUMMARY;
+    if (cursor != null) {
+      logger.info("GET /recipes - Cursor request received (size={})", pageable.getPageSize());
+      return ResponseEntity.ok(
+          summary
+              ? recipeService.getRecipeSummaryFeed(
+                  cursor, pageable.getPageSize(), pageable.getSort())
+              : recipeService.getRecipeFeed(cursor, pageable.getPageSize(), pageable.getSort()));
+    }
+
     logger.info(
         "GET /recipes - Request received (page={}, size={})",
         pageable.getPageNumber(),
         pageable.getPageSize());
 
-    return recipeService.getAllRecipes(pageable);
+    return ResponseEntity.ok(
+        summary
+            ? recipeService.getAllRecipeSummaries(pageable)
+            : recipeService.getAllRecipes(pageable));
   }
 
+  // Sends ETag and Last-Modified; a client that already has this version gets 304 with no body,
+  // and nothing is rendered for it. The body is the cached JSON bytes (gzipped if the client
+  // accepts it), not a fresh serialization
   @GetMapping("/recipes/{id}")
-  public Recipe getRecipeById(@PathVariable Integer id) {
-    return recipeService.getRecipeById(id);
+  public ResponseEntity<byte[]> getRecipeById(
+      @PathVariable Integer id, @RequestHeader HttpHeaders headers) {
+    return RecipeETag.ok(
+        recipeService.getRenderedRecipe(id, RecipeETag.isCurrent(headers)), headers);
   }
 
+  // ?ingredient=x keeps the original substring search
+  // ?ingredient=chicken&ingredient=garlic&mode=all|any uses the ingredient index
+  // The ingredient values are read from the raw parameters: a bound String[] or List would split
+  // a single value like "salt, pepper" on its comma
+  // ?q=spicy chicken is a ranked full-text search across all recipe text
   @GetMapping("/recipes/search")
-  public List<Recipe> searchRecipe(
+  public List<?> searchRecipe(
       @RequestParam(required = false) String name,
-      @RequestParam(required = false) String ingredient) {
+      @RequestParam MultiValueMap<String, String> params,
+      @RequestParam(required = false) MatchMode mode,
+      @RequestParam(required = false) String q,
+      @RequestParam(defaultValue = "20") Integer limit,
+      @RequestParam(defaultValue = "full") RecipeView view) {
+    boolean summary = view == RecipeView.SUMMARY;
+    if (q != null && !q.isBlank()) {
+      int capped = Math.min(Math.max(limit, 1), 100);
+      return summary
+          ? recipeService.searchRecipeSummariesFullText(q, capped)
+          : recipeService.searchRecipesFullText(q, capped);
+    }
     if (name != null) {
-      return recipeService.getRecipesByName(name);
+      return summary
+          ? recipeService.getRecipeSummariesByName(name)
+          : recipeService.getRecipesByName(name);
     }
-    if (ingredient != null) {
-      return recipeService.getRecipeByIngredient(ingredient);
+    List<String> ingredient = params.get("ingredient");
+    if (ingredient != null && !ingredient.isEmpty()) {
+      if (mode == null && ingredient.size() == 1) {
+        return summary
+            ? recipeService.getRecipeSummariesByIngredient(ingredient.get(0))
+            : recipeService.getRecipeByIngredient(ingredient.get(0));
+      }
+      MatchMode matchMode = mode != null ? mode : MatchMode.ALL;
+      return summary
+          ? recipeService.getRecipeSummariesByIngredients(ingredient, matchMode)
+          : recipeService.getRecipesByIngredients(ingredient, matchMode);
     }
     return List.of();
   }
 
+  // Any mix of criteria in one paged query, e.g.
+  // /recipes/filter?category=dinner&category=lunch&maxPrepTime=30&ingredient=chicken&sort=name
+  // Sortable by id, name, prepTimeMinutes and servings (newest first if no sort is given)
+  @GetMapping("/recipes/filter")
+  public Page<?> filterRecipes(
+      @RequestParam(required = false) List<Category> category,
+      @RequestParam(required = false) Integer minPrepTime,
+      @RequestParam(required = false) Integer maxPrepTime,
+      @RequestParam(required = false) Integer servings,
+      @RequestParam(required = false) RecipeSource source,
+      @RequestParam(required = false) String name,
+      @RequestParam(required = false) String ingredient,
+      @PageableDefault(size = 20) Pageable pageable,
+      @RequestParam(defaultValue = "full") RecipeView view) {
+    RecipeFilter filter =
+        new RecipeFilter(category, minPrepTime, maxPrepTime, servings, source, name, ingredient);
+    logger.info("GET /recipes/filter - {} (page={})", filter, pageable.getPageNumber());
+
+    return view == RecipeView.SUMMARY
+        ? recipeService.filterRecipeSummaries(filter, pageable)
+        : recipeService.filterRecipes(filter, pageable);
+  }
+
   @GetMapping("/recipes/category/{category}")
-  public List<Recipe> getRecipesByCategory(@PathVariable Category category) {
-    return recipeService.getRecipeByCategory(category);
+  public List<?> getRecipesByCategory(
+      @PathVariable Category category, @RequestParam(defaultValue = "full") RecipeView view) {
+    return view == RecipeView.SUMMARY
+        ? recipeService.getRecipeSummariesByCategory(category)
+        : recipeService.getRecipeByCategory(category);
   }
 
   @GetMapping("/recipes/quick")
-  public List<Recipe> getRecipesLessThanThirtyMins(@RequestParam(defaultValue = "30") Integer max) {
+  public List<?> getRecipesLessThanThirtyMins(
+      @RequestParam(defaultValue = "30") Integer max,
+      @RequestParam(defaultValue = "full") RecipeView view) {
     if (max != null) {
-      return recipeService.getRecipeByPrepTimeLessThan(max);
+      return view == RecipeView.SUMMARY
+          ? recipeService.getRecipeSummariesByPrepTimeLessThan(max)
+          : recipeService.getRecipeByPrepTimeLessThan(max);
     }
     return List.of();
   }
 
   @GetMapping("/recipes/servings/{count}")
-  public List<Recipe> getRecipesByServings(@PathVariable Integer count) {
-    return recipeService.getRecipesByServings(count);
+  public List<?> getRecipesByServings(
+      @PathVariable Integer count, @RequestParam(defaultValue = "full") RecipeView view) {
+    return view == RecipeView.SUMMARY
+        ? recipeService.getRecipeSummariesByServings(count)
+        : recipeService.getRecipesByServings(count);
   }
 
   @PostMapping("/recipes")
@@ -91,9 +187,14 @@ public class RecipeController {
     return ResponseEntity.noContent().build();
   }
 
+  // With If-Match, the update only happens if the recipe is still at that ETag (412 otherwise)
   @PutMapping("/recipes/{id}")
-  public Recipe updateRecipe(@PathVariable int id, @Valid @RequestBody Recipe recipe) {
-    return recipeService.updateRecipe(id, recipe);
+  public ResponseEntity<Recipe> updateRecipe(
+      @PathVariable int id,
+      @Valid @RequestBody Recipe recipe,
+      @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+    return RecipeETag.ok(
+        recipeService.updateRecipe(id, recipe, RecipeETag.parseIfMatch(ifMatch)));
   }
 
   @GetMapping("/recipes/search/spoonacular")
@@ -119,4 +220,36 @@ public class RecipeController {
     logger.info("Saved Spoonacular recipe with id: {}", saved.getId());
 
     return new ResponseEntity<>(saved, HttpStatus.CREATED);
-  }}
+  }
+
+  @PostMapping("/recipes/spoonacular/bulk")
+  public List<BulkImportResult> importSpoonacularRecipes(
+      @Valid @RequestBody BulkImportRequest request, @AuthenticationPrincipal User user) {
+    logger.info(
+        "POST /recipes/spoonacular/bulk - Importing {} recipes for user: {}",
+        request.ids().size(),
+        user.getUsername());
+
+    return recipeService.importSpoonacularRecipes(request.ids(), user);
+  }
+
+  // Creates up to 1000 recipes at once; invalid or duplicate recipes get their own result and
+  // don't stop the rest from being saved
+  @PostMapping("/recipes/batch")
+  public List<BatchRecipeResult> createRecipes(
+      @Valid @RequestBody BatchRecipeRequest request, @AuthenticationPrincipal User user) {
+    logger.info(
+        "POST /recipes/batch - Creating {} recipes for user: {}",
+        request.recipes().size(),
+        user.getUsername());
+
+    return recipeService.createRecipes(request.recipes(), user);
+  }
+
+  // Groups of recipes that look like the same dish (similar name and ingredients)
+  @GetMapping("/recipes/duplicates")
+  public List<DuplicateCluster> getDuplicateClusters(
+      @RequestParam(defaultValue = "20") Integer limit, @AuthenticationPrincipal User user) {
+    return recipeService.findDuplicateClusters(user, Math.min(Math.max(limit, 1), 100));
+  }
+}
@@ -0,0 +1,172 @@
+package com.learning.recipeapi.controller;
+
+import com.learning.recipeapi.entity.Recipe;
+import com.learning.recipeapi.service.RecipeRenderCache.RenderedRecipe;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.BiPredicate;
+
+// Validators for a single recipe: a strong ETag made from the @Version column and Last-Modified
+// from updatedAt. GET /recipes/{id} checks If-None-Match / If-Modified-Since against them (see
+// isCurrent) before the body is rendered, and answers 304 without one
+final class RecipeETag {
+
+  private static final String GZIP_SUFFIX = "-gzip";
+
+  private RecipeETag() {}
+
+  static ResponseEntity<Recipe> ok(Recipe recipe) {
+    return validators(ResponseEntity.ok(), recipe.getVersion(), recipe.getUpdatedAt(), "")
+        .body(recipe);
+  }
+
+  // Pre-serialized bytes from RecipeRenderCache, written as they are. The gzipped copy gets its
+  // own ETag, since a strong ETag names exact bytes. A recipe that wasn't rendered because the
+  // client's copy is current gets 304
+  static ResponseEntity<byte[]> ok(RenderedRecipe rendered, HttpHeaders request) {
+    if (rendered.json() == null) {
+      return notModified(rendered, request);
+    }
+    boolean gzip =
+        rendered.gzip() != null && acceptsGzip(request.getFirst(HttpHeaders.ACCEPT_ENCODING));
+    String suffix = gzip ? GZIP_SUFFIX : "";
+    ResponseEntity.BodyBuilder response =
+        validators(ResponseEntity.ok(), rendered.version(), rendered.updatedAt(), suffix)
+            .contentType(MediaType.APPLICATION_JSON)
+            .varyBy(HttpHeaders.ACCEPT_ENCODING);
+    if (gzip) {
+      return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(rendered.gzip());
+    }
+    return response.body(rendered.json());
+  }
+
+  // For RecipeService.getRenderedRecipe: true if the request's If-None-Match (or If-Modified-Since
+  // when there is no If-None-Match) already covers this version. Both encodings' tags match, as
+  // the JSON behind them is the same. The headers are read here, on the request thread
+  static BiPredicate<Long, Instant> isCurrent(HttpHeaders request) {
+    String ifNoneMatch = request.getFirst(HttpHeaders.IF_NONE_MATCH);
+    long ifModifiedSince = request.getIfModifiedSince();
+    if (ifNoneMatch != null) {
+      boolean any = ifNoneMatch.trim().equals("*");
+      List<Long> versions = parseIfNoneMatch(ifNoneMatch);
+      return (version, updatedAt) -> version != null && (any || versions.contains(version));
+    }
+    // HTTP dates only have whole seconds
+    return (version, updatedAt) ->
+        ifModifiedSince >= 0
+            && updatedAt != null
+            && updatedAt.getEpochSecond() <= ifModifiedSince / 1000;
+  }
+
+  // The 304 repeats the tag the client sent, since only the client knows which encoding it holds
+  private static ResponseEntity<byte[]> notModified(RenderedRecipe rendered, HttpHeaders request) {
+    String gzipTag = "\"" + rendered.version() + GZIP_SUFFIX + "\"";
+    String ifNoneMatch = request.getFirst(HttpHeaders.IF_NONE_MATCH);
+    boolean gzip = ifNoneMatch != null && ifNoneMatch.contains(gzipTag);
+    return validators(
+            ResponseEntity.status(HttpStatus.NOT_MODIFIED),
+            rendered.version(),
+            rendered.updatedAt(),
+            gzip ? GZIP_SUFFIX : "")
+        .varyBy(HttpHeaders.ACCEPT_ENCODING)
+        .build();
+  }
+
+  // Accept-Encoding: "gzip, br" or "br;q=1, gzip;q=0.5" -> true, "gzip;q=0" or "x-gzip" -> false.
+  // An explicit gzip entry wins over *, and a missing or unreadable q counts as 1 and 0
+  // respectively
+  static boolean acceptsGzip(String acceptEncoding) {
+    if (acceptEncoding == null) {
+      return false;
+    }
+    Double gzip = null;
+    Double any = null;
+    for (String entry : acceptEncoding.split(",")) {
+      String[] parts = entry.split(";");
+      String coding = parts[0].trim().toLowerCase(Locale.ROOT);
+      if (!coding.equals("gzip") && !coding.equals("*")) {
+        continue;
+      }
+      double q = 1;
+      for (int i = 1; i < parts.length; i++) {
+        String param = parts[i].trim().toLowerCase(Locale.ROOT);
+        if (param.startsWith("q=")) {
+          try {
+            q = Double.parseDouble(param.substring(2).trim());
+          } catch (NumberFormatException e) {
+            q = 0;
+          }
+        }
+      }
+      if (coding.equals("gzip")) {
+        gzip = q;
+      } else {
+        any = q;
+      }
+    }
+    Double q = gzip != null ? gzip : any;
+    return q != null && q > 0;
+  }
+
+  private static ResponseEntity.BodyBuilder validators(
+      ResponseEntity.BodyBuilder response, Long version, Instant updatedAt, String suffix) {
+    // Clients may keep the copy but must revalidate it. Setting this also stops Spring Security
+    // from adding its default no-store, which would stop clients from caching at all
+    response.cacheControl(CacheControl.noCache().cachePrivate());
+    if (version != null) {
+      response.eTag("\"" + version + suffix + "\"");
+    }
+    if (updatedAt != null) {
+      response.lastModified(updatedAt);
+    }
+    return response;
+  }
+
+  // If-Match: "3" or "3", "4" -> [3, 4]. Absent or * -> null, meaning no precondition.
+  // Weak or malformed tags can never pass the strong comparison If-Match needs, so they are
+  // dropped (and an empty list always fails)
+  static List<Long> parseIfMatch(String header) {
+    if (header == null || header.isBlank() || header.trim().equals("*")) {
+      return null;
+    }
+    return parseTags(header, false);
+  }
+
+  // If-None-Match: "3", W/"4-gzip" -> [3, 4]. Unlike If-Match it uses the weak comparison, so
+  // weak tags count too
+  static List<Long> parseIfNoneMatch(String header) {
+    return parseTags(header, true);
+  }
+
+  private static List<Long> parseTags(String header, boolean allowWeak) {
+    List<Long> versions = new ArrayList<>();
+    for (String tag : header.split(",")) {
+      tag = tag.trim();
+      if (allowWeak && tag.startsWith("W/")) {
+        tag = tag.substring(2);
+      }
+      if (tag.length() < 3 || !tag.startsWith("\"") || !tag.endsWith("\"")) {
+        continue;
+      }
+      String value = tag.substring(1, tag.length() - 1);
+      if (value.endsWith(GZIP_SUFFIX)) {
+        // same version, the client just happened to get the gzipped copy
+        value = value.substring(0, value.length() - GZIP_SUFFIX.length());
+      }
+      try {
+        versions.add(Long.parseLong(value));
+      } catch (NumberFormatException e) {
+        // not one of ours
+      }
+    }
+    return versions;
+  }
+}
@@ -0,0 +1,63 @@
+package com.learning.recipeapi.controller;
+
+import com.learning.recipeapi.entity.User;
+import com.learning.recipeapi.service.RecipeExportService;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.zip.GZIPOutputStream;
+
+@RestController
+public class RecipeExportController {
+  static final String NDJSON = "application/x-ndjson";
+
+  private final RecipeExportService recipeExportService;
+  private static final Logger logger = LoggerFactory.getLogger(RecipeExportController.class);
+
+  @Autowired
+  public RecipeExportController(RecipeExportService recipeExportService) {
+    this.recipeExportService = recipeExportService;
+  }
+
+  // Streams every visible recipe as one JSON object per line, gzipped if the client accepts it.
+  // Written on the request thread straight into the response, so there is no async timeout and
+  // nothing is collected in memory first
+  @GetMapping(value = "/recipes/export", produces = NDJSON)
+  public void exportRecipes(
+      @AuthenticationPrincipal User user,
+      @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+      HttpServletResponse response)
+      throws IOException {
+    boolean gzip = RecipeETag.acceptsGzip(acceptEncoding);
+    logger.info("GET /recipes/export - Export requested by {} (gzip={})", user.getUsername(), gzip);
+
+    response.setContentType(NDJSON);
+    response.setCharacterEncoding("UTF-8");
+    response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+    response.setHeader(
+        HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"recipes.ndjson\"");
+    if (gzip) {
+      response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+    }
+
+    OutputStream out = response.getOutputStream();
+    if (gzip) {
+      // finish() writes the gzip trailer without closing the servlet stream
+      GZIPOutputStream gzipOut = new GZIPOutputStream(out, 8192);
+      recipeExportService.exportRecipes(user.getId(), gzipOut);
+      gzipOut.finish();
+    } else {
+      recipeExportService.exportRecipes(user.getId(), out);
+    }
+    out.flush();
+  }
+}
@@ -0,0 +1,7 @@
+package com.learning.recipeapi.diagnostics;
+
+public enum DiagnosticCategory {
+  AUTH, // JWT filter decisions
+  ACCESS_DENIED, // 403s from the security access-denied handler
+  REQUEST // request/response summaries
+}
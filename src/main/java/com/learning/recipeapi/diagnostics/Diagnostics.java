@@ -0,0 +1,150 @@
+package com.learning.recipeapi.diagnostics;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Debug events for hot paths (auth filter, access denied) without blocking request threads.
+// Request threads only offer() into a bounded ring buffer; one background thread formats and
+// logs them. When the buffer is full the event is dropped and counted rather than waiting.
+//
+// Each category has a sampling rate "1 in N" (0 = off) that can be changed at runtime through
+// /actuator/diagnostics. A disabled category returns after one array read, with no allocation -
+// callers should pass raw values (not concatenated strings) so nothing is built up front.
+@Component
+public class Diagnostics {
+  private static final Logger logger = LoggerFactory.getLogger(Diagnostics.class);
+
+  private record Event(DiagnosticCategory category, String template, Object arg1, Object arg2) {}
+
+  private final BlockingQueue<Event> buffer;
+  private final AtomicIntegerArray sampleEvery =
+      new AtomicIntegerArray(DiagnosticCategory.values().length);
+  private final AtomicLong dropped = new AtomicLong();
+  private final Map<DiagnosticCategory, Logger> categoryLoggers =
+      new EnumMap<>(DiagnosticCategory.class);
+
+  private volatile Thread writer;
+
+  @Autowired
+  public Diagnostics(Environment environment) {
+    this(environment.getProperty("diagnostics.buffer-size", Integer.class, 4096));
+    for (DiagnosticCategory category : DiagnosticCategory.values()) {
+      String key = "diagnostics.sample-every." + category.name().toLowerCase(Locale.ROOT);
+      setSampleEvery(category, environment.getProperty(key, Integer.class, 0));
+    }
+  }
+
+  Diagnostics(int bufferSize) {
+    this.buffer = new ArrayBlockingQueue<>(bufferSize);
+    for (DiagnosticCategory category : DiagnosticCategory.values()) {
+      categoryLoggers.put(
+          category,
+          LoggerFactory.getLogger("diagnostics." + category.name().toLowerCase(Locale.ROOT)));
+    }
+  }
+
+  @PostConstruct
+  void start() {
+    Thread thread = new Thread(this::drain, "diagnostics-writer");
+    thread.setDaemon(true);
+    thread.start();
+    writer = thread;
+  }
+
+  @PreDestroy
+  void stop() {
+    Thread thread = writer;
+    writer = null;
+    if (thread != null) {
+      thread.interrupt();
+    }
+  }
+
+  public boolean isEnabled(DiagnosticCategory category) {
+    return sampleEvery.get(category.ordinal()) > 0;
+  }
+
+  public void record(DiagnosticCategory category, String template) {
+    record(category, template, null, null);
+  }
+
+  public void record(DiagnosticCategory category, String template, Object arg) {
+    record(category, template, arg, null);
+  }
+
+  public void record(DiagnosticCategory category, String template, Object arg1, Object arg2) {
+    int every = sampleEvery.get(category.ordinal());
+    if (every <= 0) {
+      return;
+    }
+    if (every > 1 && ThreadLocalRandom.current().nextInt(every) != 0) {
+      return;
+    }
+    if (!buffer.offer(new Event(category, template, arg1, arg2))) {
+      dropped.incrementAndGet();
+    }
+  }
+
+  // 0 = off, 1 = every event, N = roughly one in N
+  public void setSampleEvery(DiagnosticCategory category, int every) {
+    sampleEvery.set(category.ordinal(), Math.max(every, 0));
+  }
+
+  public int getSampleEvery(DiagnosticCategory category) {
+    return sampleEvery.get(category.ordinal());
+  }
+
+  public long getDroppedCount() {
+    return dropped.get();
+  }
+
+  public int getPendingCount() {
+    return buffer.size();
+  }
+
+  // Writes everything currently buffered - used by the writer thread and by tests
+  int flush() {
+    int written = 0;
+    Event event;
+    while ((event = buffer.poll()) != null) {
+      write(event);
+      written++;
+    }
+    return written;
+  }
+
+  private void drain() {
+    while (writer == Thread.currentThread()) {
+      try {
+        Event event = buffer.poll(1, TimeUnit.SECONDS);
+        if (event != null) {
+          write(event);
+        }
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return;
+      } catch (RuntimeException e) {
+        logger.warn("Failed to write diagnostic event: {}", e.getMessage());
+      }
+    }
+  }
+
+  private void write(Event event) {
+    categoryLoggers.get(event.category()).info(event.template(), event.arg1(), event.arg2());
+  }
+}
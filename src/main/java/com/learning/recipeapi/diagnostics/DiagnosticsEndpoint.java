@@ -0,0 +1,42 @@
+package com.learning.recipeapi.diagnostics;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// GET  /actuator/diagnostics                      -> sampling rates and buffer stats
+// POST /actuator/diagnostics/auth {"sampleEvery": 100} -> change a category at runtime
+// Both need ROLE_ADMIN (see SecurityConfig)
+@Component
+@Endpoint(id = "diagnostics")
+public class DiagnosticsEndpoint {
+  private final Diagnostics diagnostics;
+
+  public DiagnosticsEndpoint(Diagnostics diagnostics) {
+    this.diagnostics = diagnostics;
+  }
+
+  @ReadOperation
+  public Map<String, Object> status() {
+    Map<String, Integer> rates = new LinkedHashMap<>();
+    for (DiagnosticCategory category : DiagnosticCategory.values()) {
+      rates.put(category.name(), diagnostics.getSampleEvery(category));
+    }
+    Map<String, Object> status = new LinkedHashMap<>();
+    status.put("sampleEvery", rates);
+    status.put("pending", diagnostics.getPendingCount());
+    status.put("dropped", diagnostics.getDroppedCount());
+    return status;
+  }
+
+  @WriteOperation
+  public Map<String, Object> setSampleEvery(@Selector String category, int sampleEvery) {
+    diagnostics.setSampleEvery(DiagnosticCategory.valueOf(category.toUpperCase()), sampleEvery);
+    return status();
+  }
+}
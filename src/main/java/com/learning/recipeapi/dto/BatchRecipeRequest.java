@@ -0,0 +1,14 @@
+package com.learning.recipeapi.dto;
+
+import com.learning.recipeapi.entity.Recipe;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+// The recipes themselves are validated one by one in RecipeService.createRecipes, so a single
+// bad recipe is reported in its own result instead of rejecting the whole batch
+public record BatchRecipeRequest(
+    @NotEmpty(message = "At least one recipe is required")
+        @Size(max = 1000, message = "A batch can contain at most 1000 recipes")
+        List<Recipe> recipes) {}
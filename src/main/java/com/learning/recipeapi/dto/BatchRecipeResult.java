@@ -0,0 +1,33 @@
+package com.learning.recipeapi.dto;
+
+import java.util.Map;
+
+// Outcome for one recipe in POST /recipes/batch - index is its position in the request
+public record BatchRecipeResult(
+    int index, Status status, Integer recipeId, String error, Map<String, String> fieldErrors) {
+
+  public enum Status {
+    CREATED,
+    INVALID,
+    DUPLICATE,
+    FAILED
+  }
+
+  public static BatchRecipeResult created(int index, Integer recipeId) {
+    return new BatchRecipeResult(index, Status.CREATED, recipeId, null, null);
+  }
+
+  public static BatchRecipeResult invalid(int index, Map<String, String> fieldErrors) {
+    return new BatchRecipeResult(
+        index, Status.INVALID, null, "Recipe validation failed", fieldErrors);
+  }
+
+  public static BatchRecipeResult duplicate(int index, String name) {
+    return new BatchRecipeResult(
+        index, Status.DUPLICATE, null, "Recipe already exists: " + name, null);
+  }
+
+  public static BatchRecipeResult failed(int index, String error) {
+    return new BatchRecipeResult(index, Status.FAILED, null, error, null);
+  }
+}
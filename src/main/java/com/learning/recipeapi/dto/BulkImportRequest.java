@@ -0,0 +1,11 @@
+package com.learning.recipeapi.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+public record BulkImportRequest(
+    @NotEmpty(message = "At least one Spoonacular id is required")
+        @Size(max = 500, message = "A bulk import can contain at most 500 recipes")
+        List<Integer> ids) {}
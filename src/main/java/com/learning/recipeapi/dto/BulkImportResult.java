@@ -0,0 +1,30 @@
+package com.learning.recipeapi.dto;
+
+// Outcome for one Spoonacular id in a bulk import
+public record BulkImportResult(
+    Integer spoonacularId, Status status, Integer recipeId, String error) {
+
+  public enum Status {
+    IMPORTED,
+    ALREADY_IMPORTED,
+    NOT_FOUND,
+    FAILED
+  }
+
+  public static BulkImportResult imported(Integer spoonacularId, Integer recipeId) {
+    return new BulkImportResult(spoonacularId, Status.IMPORTED, recipeId, null);
+  }
+
+  public static BulkImportResult alreadyImported(Integer spoonacularId) {
+    return new BulkImportResult(spoonacularId, Status.ALREADY_IMPORTED, null, null);
+  }
+
+  public static BulkImportResult notFound(Integer spoonacularId) {
+    return new BulkImportResult(
+        spoonacularId, Status.NOT_FOUND, null, "Recipe not found on Spoonacular");
+  }
+
+  public static BulkImportResult failed(Integer spoonacularId, String error) {
+    return new BulkImportResult(spoonacularId, Status.FAILED, null, error);
+  }
+}
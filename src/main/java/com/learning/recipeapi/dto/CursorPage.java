@@ -0,0 +1,6 @@
+package com.learning.recipeapi.dto;
+
+import java.util.List;
+
+// One page of a keyset-paginated feed. nextCursor is null when there are no more results
+public record CursorPage<T>(List<T> content, String nextCursor, int size) {}
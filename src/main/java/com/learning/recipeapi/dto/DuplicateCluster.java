@@ -0,0 +1,6 @@
+package com.learning.recipeapi.dto;
+
+import java.util.List;
+
+// A group of recipes that are probably the same dish (see DuplicateIndex)
+public record DuplicateCluster(List<RecipeNameEntry> recipes) {}
@@ -0,0 +1,4 @@
+package com.learning.recipeapi.dto;
+
+// (id, normalizedName) pair used to warm the ingredient dictionary at startup
+public record IngredientNameEntry(Integer id, String normalizedName) {}
@@ -0,0 +1,19 @@
+package com.learning.recipeapi.dto;
+
+import com.learning.recipeapi.Category;
+import com.learning.recipeapi.RecipeSource;
+
+// One line of the NDJSON export - a flat projection, so streaming never builds Recipe entities
+public record RecipeExportRow(
+    Integer id,
+    String name,
+    String description,
+    String ingredientsText,
+    String instructions,
+    Integer prepTimeMinutes,
+    Integer servings,
+    Category category,
+    RecipeSource source,
+    String imageUrl,
+    Integer spoonacularId,
+    String username) {}
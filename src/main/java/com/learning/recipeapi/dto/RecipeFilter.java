@@ -0,0 +1,17 @@
+package com.learning.recipeapi.dto;
+
+import com.learning.recipeapi.Category;
+import com.learning.recipeapi.RecipeSource;
+
+import java.util.List;
+
+// Criteria for GET /recipes/filter - null (or empty) fields don't filter anything.
+// Categories are OR-ed together, everything else is AND-ed
+public record RecipeFilter(
+    List<Category> categories,
+    Integer minPrepTime,
+    Integer maxPrepTime,
+    Integer servings,
+    RecipeSource source,
+    String name,
+    String ingredient) {}
@@ -0,0 +1,4 @@
+package com.learning.recipeapi.dto;
+
+// Lightweight (id, ingredientsText) pair used to build the ingredient index at startup
+public record RecipeIngredientsEntry(Integer id, String ingredientsText) {}
@@ -0,0 +1,4 @@
+package com.learning.recipeapi.dto;
+
+// Lightweight (id, name) pair used to build the in-memory name index without loading full recipes
+public record RecipeNameEntry(Integer id, String name) {}
@@ -0,0 +1,35 @@
+package com.learning.recipeapi.dto;
+
+import com.learning.recipeapi.Category;
+import com.learning.recipeapi.entity.Recipe;
+
+// What a recipe list screen shows - selected straight from the database by the *Summaries
+// queries in RecipeRepository, without instructions, ingredients text, user or ingredients
+public record RecipeSummary(
+    Integer id,
+    String name,
+    String imageUrl,
+    Category category,
+    Integer prepTimeMinutes,
+    Integer servings) {
+
+  public static RecipeSummary from(Recipe recipe) {
+    return new RecipeSummary(
+        recipe.getId(),
+        recipe.getName(),
+        recipe.getImageUrl(),
+        recipe.getCategory(),
+        recipe.getPrepTimeMinutes(),
+        recipe.getServings());
+  }
+
+  public static RecipeSummary from(RecipeSummaryRow row) {
+    return new RecipeSummary(
+        row.getId(),
+        row.getName(),
+        row.getImageUrl(),
+        row.getCategory(),
+        row.getPrepTimeMinutes(),
+        row.getServings());
+  }
+}
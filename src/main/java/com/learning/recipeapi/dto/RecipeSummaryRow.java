@@ -0,0 +1,19 @@
+package com.learning.recipeapi.dto;
+
+import com.learning.recipeapi.Category;
+
+// The RecipeSummary columns as read by a native query. Spring Data fills this from the column
+// aliases (and turns the category name back into the enum), which it can't do for a record
+public interface RecipeSummaryRow {
+  Integer getId();
+
+  String getName();
+
+  String getImageUrl();
+
+  Category getCategory();
+
+  Integer getPrepTimeMinutes();
+
+  Integer getServings();
+}
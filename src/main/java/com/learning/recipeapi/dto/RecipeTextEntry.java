@@ -0,0 +1,7 @@
+package com.learning.recipeapi.dto;
+
+import com.learning.recipeapi.RecipeSource;
+
+// Name, ingredients text and owner of a recipe - used to warm the duplicate index at startup
+public record RecipeTextEntry(
+    Integer id, String name, String ingredientsText, RecipeSource source, Integer userId) {}
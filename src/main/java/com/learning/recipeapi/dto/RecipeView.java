@@ -0,0 +1,7 @@
+package com.learning.recipeapi.dto;
+
+// ?view=summary on list endpoints returns RecipeSummary rows instead of full recipes
+public enum RecipeView {
+  FULL,
+  SUMMARY
+}
@@ -1,18 +1,31 @@
 package com.learning.recipeapi.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import java.util.ArrayList;
 import java.util.List;
 
 @Entity
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "ingredient")
 public class Ingredient {
 
+  // pooled sequence, for the same reason as Recipe.id
   @Id
-  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "ingredient_seq")
+  @SequenceGenerator(name = "ingredient_seq", sequenceName = "ingredient_seq", allocationSize = 50)
   private Integer id;
 
   private String name;
 
+  // lower-cased, trimmed, single-spaced name - one row per canonical ingredient (see
+  // IngredientDictionary). Null only on rows from before the dictionary that duplicate a name
+  @Column(name = "normalized_name", unique = true)
+  private String normalizedName;
+
+  // a shared ingredient like "salt" belongs to a huge number of recipes - never serialize them
+  @JsonIgnore
   @ManyToMany(mappedBy = "ingredients")
   private List<Recipe> recipes = new ArrayList<>();
 
@@ -40,6 +53,14 @@ public class Ingredient {
     this.name = name;
   }
 
+  public String getNormalizedName() {
+    return normalizedName;
+  }
+
+  public void setNormalizedName(String normalizedName) {
+    this.normalizedName = normalizedName;
+  }
+
   public List<Recipe> getRecipes() {
     return recipes;
   }
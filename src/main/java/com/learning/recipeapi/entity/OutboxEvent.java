@@ -0,0 +1,134 @@
+package com.learning.recipeapi.entity;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+// work that has to happen after a local commit (e.g. calling Spoonacular) is written here in the
+// same transaction as the change that caused it, then picked up by a background worker
+@Entity
+@Table(
+    name = "outbox_event",
+    indexes =
+        @Index(name = "idx_outbox_status_next_attempt", columnList = "status, next_attempt_at"))
+public class OutboxEvent {
+
+  public enum Type {
+    CONNECT_SPOONACULAR_USER
+  }
+
+  public enum Status {
+    PENDING,
+    DONE,
+    FAILED
+  }
+
+  @Id
+  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  private Long id;
+
+  @Enumerated(EnumType.STRING)
+  @Column(nullable = false)
+  private Type type;
+
+  // id of the row the event is about (the user id for CONNECT_SPOONACULAR_USER)
+  @Column(name = "aggregate_id", nullable = false)
+  private Integer aggregateId;
+
+  @Enumerated(EnumType.STRING)
+  @Column(nullable = false)
+  private Status status = Status.PENDING;
+
+  @Column(nullable = false)
+  private int attempts;
+
+  @Column(name = "next_attempt_at", nullable = false)
+  private LocalDateTime nextAttemptAt;
+
+  @Column(name = "last_error", length = 1000)
+  private String lastError;
+
+  @CreationTimestamp
+  @Column(name = "created_at", updatable = false)
+  private LocalDateTime createdAt;
+
+  @Column(name = "processed_at")
+  private LocalDateTime processedAt;
+
+  public OutboxEvent() {}
+
+  public OutboxEvent(Type type, Integer aggregateId) {
+    this.type = type;
+    this.aggregateId = aggregateId;
+    this.nextAttemptAt = LocalDateTime.now();
+  }
+
+  public Long getId() {
+    return id;
+  }
+
+  public void setId(Long id) {
+    this.id = id;
+  }
+
+  public Type getType() {
+    return type;
+  }
+
+  public void setType(Type type) {
+    this.type = type;
+  }
+
+  public Integer getAggregateId() {
+    return aggregateId;
+  }
+
+  public void setAggregateId(Integer aggregateId) {
+    this.aggregateId = aggregateId;
+  }
+
+  public Status getStatus() {
+    return status;
+  }
+
+  public void setStatus(Status status) {
+    this.status = status;
+  }
+
+  public int getAttempts() {
+    return attempts;
+  }
+
+  public void setAttempts(int attempts) {
+    this.attempts = attempts;
+  }
+
+  public LocalDateTime getNextAttemptAt() {
+    return nextAttemptAt;
+  }
+
+  public void setNextAttemptAt(LocalDateTime nextAttemptAt) {
+    this.nextAttemptAt = nextAttemptAt;
+  }
+
+  public String getLastError() {
+    return lastError;
+  }
+
+  public void setLastError(String lastError) {
+    this.lastError = lastError;
+  }
+
+  public LocalDateTime getCreatedAt() {
+    return createdAt;
+  }
+
+  public LocalDateTime getProcessedAt() {
+    return processedAt;
+  }
+
+  public void setProcessedAt(LocalDateTime processedAt) {
+    this.processedAt = processedAt;
+  }
+}
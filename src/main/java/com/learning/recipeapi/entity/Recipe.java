@@ -3,18 +3,35 @@ package com.learning.recipeapi.entity;
 import com.learning.recipeapi.Category;
 import com.learning.recipeapi.RecipeSource;
 import com.learning.recipeapi.validation.RealisticCookingTime;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.UpdateTimestamp;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
 
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
 
 @Entity
 @Table(name = "recipe")
+// Fetch plan for recipe lists: the user comes back in the same select as the recipe instead of
+// one extra select per owner. Ingredients are loaded in batches
+// (hibernate.default_batch_fetch_size) when Jackson serializes them, because join-fetching a
+// collection breaks LIMIT/OFFSET paging
+@NamedEntityGraph(name = Recipe.WITH_USER, attributeNodes = @NamedAttributeNode("user"))
+// second-level cache regions are sized in SecondLevelCacheConfig
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "recipe")
 public class Recipe {
+  public static final String WITH_USER = "Recipe.withUser";
+
+  // pooled sequence rather than IDENTITY: Hibernate can hand out 50 ids per database call and
+  // batch the inserts, which it can't do when the id only exists after each INSERT
   @Id
-  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "recipe_seq")
+  @SequenceGenerator(name = "recipe_seq", sequenceName = "recipe_seq", allocationSize = 50)
   private Integer id;
 
   @NotBlank(message = "Recipe name cannot be left empty")
@@ -56,6 +73,7 @@ public class Recipe {
   // many recipes have many ingredients
   // saving recipe saves new ingredients
   // no REMOVE - deleting recipe doesn't delete ingredients (they are used in other recipes)
+  @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "recipe.ingredients")
   @ManyToMany(cascade = {CascadeType.PERSIST, CascadeType.MERGE})
   @JoinTable(
       name = "recipe_ingredients", // name of join table
@@ -65,6 +83,20 @@ public class Recipe {
       )
   private List<Ingredient> ingredients = new ArrayList<>();
 
+  // Bumped by Hibernate on every update (including ingredient changes). Used as the ETag and
+  // for optimistic locking, so an update based on a stale copy fails instead of overwriting.
+  // The column default fills in rows that existed before the column did
+  @Version
+  @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+  @Column(nullable = false, columnDefinition = "bigint default 0 not null")
+  private Long version;
+
+  // Sent as Last-Modified
+  @UpdateTimestamp
+  @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+  @Column(name = "updated_at")
+  private Instant updatedAt;
+
   public Recipe() {}
 
   public Recipe(
@@ -201,4 +233,20 @@ public class Recipe {
   public void setSpoonacularId(Integer spoonacularId) {
     this.spoonacularId = spoonacularId;
   }
+
+  public Long getVersion() {
+    return version;
+  }
+
+  public void setVersion(Long version) {
+    this.version = version;
+  }
+
+  public Instant getUpdatedAt() {
+    return updatedAt;
+  }
+
+  public void setUpdatedAt(Instant updatedAt) {
+    this.updatedAt = updatedAt;
+  }
 }
@@ -1,7 +1,10 @@
 package com.learning.recipeapi.entity;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.learning.recipeapi.security.UserCacheInvalidationListener;
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.CreationTimestamp;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
@@ -14,6 +17,8 @@ import java.util.List;
 
 @Entity
 @Table(name = "users")
+@EntityListeners(UserCacheInvalidationListener.class)
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "user")
 public class User implements UserDetails {
 
   @Id
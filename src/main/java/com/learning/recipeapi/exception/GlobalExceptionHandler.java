@@ -1,15 +1,19 @@
 package com.learning.recipeapi.exception;
 
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.context.request.async.AsyncRequestTimeoutException;
 
 import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.TimeoutException;
 
 @ControllerAdvice
 public class GlobalExceptionHandler {
@@ -50,6 +54,55 @@ public class GlobalExceptionHandler {
     return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
   }
 
+  @ExceptionHandler(ApiException.class)
+  public ResponseEntity<Map<String, Object>> handleApiException(ApiException ex) {
+    Map<String, Object> errorResponse = new HashMap<>();
+    errorResponse.put("errorCode", ex.getErrorCode());
+    errorResponse.put("error", ex.getMessage());
+    errorResponse.put("status", ex.getStatus().value());
+    errorResponse.put("timestamp", LocalDateTime.now());
+
+    return new ResponseEntity<>(errorResponse, ex.getStatus());
+  }
+
+  // Spoonacular circuit breaker is open - fail fast instead of waiting on a broken upstream
+  @ExceptionHandler(CallNotPermittedException.class)
+  public ResponseEntity<Map<String, Object>> handleCallNotPermittedException(
+      CallNotPermittedException ex) {
+    Map<String, Object> errorResponse = new HashMap<>();
+    errorResponse.put("errorCode", "UPSTREAM_UNAVAILABLE");
+    errorResponse.put("error", "Spoonacular is temporarily unavailable, please try again shortly");
+    errorResponse.put("status", HttpStatus.SERVICE_UNAVAILABLE.value());
+    errorResponse.put("timestamp", LocalDateTime.now());
+
+    return new ResponseEntity<>(errorResponse, HttpStatus.SERVICE_UNAVAILABLE);
+  }
+
+  // Too many requests already waiting on Spoonacular
+  @ExceptionHandler(BulkheadFullException.class)
+  public ResponseEntity<Map<String, Object>> handleBulkheadFullException(
+      BulkheadFullException ex) {
+    Map<String, Object> errorResponse = new HashMap<>();
+    errorResponse.put("errorCode", "UPSTREAM_BUSY");
+    errorResponse.put("error", "Too many Spoonacular requests in progress, please try again");
+    errorResponse.put("status", HttpStatus.SERVICE_UNAVAILABLE.value());
+    errorResponse.put("timestamp", LocalDateTime.now());
+
+    return new ResponseEntity<>(errorResponse, HttpStatus.SERVICE_UNAVAILABLE);
+  }
+
+  // An /async task ran past recipe.async.timeout (or the servlet async timeout fired first)
+  @ExceptionHandler({TimeoutException.class, AsyncRequestTimeoutException.class})
+  public ResponseEntity<Map<String, Object>> handleAsyncTimeout(Exception ex) {
+    Map<String, Object> errorResponse = new HashMap<>();
+    errorResponse.put("errorCode", "ASYNC_TIMEOUT");
+    errorResponse.put("error", "The request took too long to process");
+    errorResponse.put("status", HttpStatus.GATEWAY_TIMEOUT.value());
+    errorResponse.put("timestamp", LocalDateTime.now());
+
+    return new ResponseEntity<>(errorResponse, HttpStatus.GATEWAY_TIMEOUT);
+  }
+
   @ExceptionHandler(MethodArgumentNotValidException.class)
   public ResponseEntity<Map<String, Object>> handleValidationErrors(
       MethodArgumentNotValidException ex) {
@@ -0,0 +1,9 @@
+package com.learning.recipeapi.exception;
+
+import org.springframework.http.HttpStatus;
+
+public class InvalidCursorException extends ApiException {
+  public InvalidCursorException() {
+    super("Invalid or expired page cursor", HttpStatus.BAD_REQUEST, "INVALID_CURSOR");
+  }
+}
@@ -0,0 +1,29 @@
+package com.learning.recipeapi.repository;
+
+// Sort orders supported by the keyset (cursor) feed - each one is (sort key, id) so it is unique
+public enum FeedSort {
+  NEWEST("r.id", false),
+  OLDEST("r.id", true),
+  NAME_ASC("r.name", true),
+  NAME_DESC("r.name", false);
+
+  private final String column;
+  private final boolean ascending;
+
+  FeedSort(String column, boolean ascending) {
+    this.column = column;
+    this.ascending = ascending;
+  }
+
+  public String getColumn() {
+    return column;
+  }
+
+  public boolean isAscending() {
+    return ascending;
+  }
+
+  public boolean isIdOnly() {
+    return "r.id".equals(column);
+  }
+}
@@ -1,10 +1,22 @@
 package com.learning.recipeapi.repository;
 
+import com.learning.recipeapi.dto.IngredientNameEntry;
 import com.learning.recipeapi.entity.Ingredient;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+
 @Repository
 public interface IngredientRepository extends JpaRepository<Ingredient, Integer> {
   // JPA provides: save(), findById(), findAll(), delete(), etc.
+
+  @Query(
+      "SELECT new com.learning.recipeapi.dto.IngredientNameEntry(i.id, i.normalizedName)"
+          + " FROM Ingredient i WHERE i.normalizedName IS NOT NULL")
+  List<IngredientNameEntry> findAllNameEntries();
+
+  List<Ingredient> findByNormalizedNameIn(Collection<String> normalizedNames);
 }
@@ -0,0 +1,33 @@
+package com.learning.recipeapi.repository;
+
+import com.learning.recipeapi.entity.OutboxEvent;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+  // row locks with SKIP LOCKED (lock timeout -2) so two app instances draining at the same time
+  // take different events instead of waiting on each other
+  @Lock(LockModeType.PESSIMISTIC_WRITE)
+  @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+  @Query(
+      "SELECT e FROM OutboxEvent e WHERE e.status = :status AND e.nextAttemptAt <= :now"
+          + " ORDER BY e.id")
+  List<OutboxEvent> findDue(
+      @Param("status") OutboxEvent.Status status,
+      @Param("now") LocalDateTime now,
+      Pageable pageable);
+
+  long countByStatus(OutboxEvent.Status status);
+}
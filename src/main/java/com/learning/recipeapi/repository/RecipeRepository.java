@@ -1,32 +1,179 @@
 package com.learning.recipeapi.repository;
 
 import com.learning.recipeapi.Category;
+import com.learning.recipeapi.dto.RecipeIngredientsEntry;
+import com.learning.recipeapi.dto.RecipeNameEntry;
+import com.learning.recipeapi.dto.RecipeSummary;
+import com.learning.recipeapi.dto.RecipeSummaryRow;
+import com.learning.recipeapi.dto.RecipeTextEntry;
 import com.learning.recipeapi.entity.Recipe;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 
-public interface RecipeRepository extends JpaRepository<Recipe, Integer> {
+public interface RecipeRepository
+    extends JpaRepository<Recipe, Integer>, RecipeRepositoryCustom {
 
+  // Every query returning Recipe entities loads the owner with the Recipe.withUser graph, so a
+  // list costs one select for recipes plus one per 100 recipes for ingredients.
+  // Finders with a small set of possible arguments (category, servings, prep time) are also
+  // cacheable: a repeated lookup is served from the query cache until the recipe table is next
+  // written (see SecondLevelCacheConfig). The free-text finders are not - nearly every search
+  // string is new, so caching them would only push useful entries out of the region
+  @EntityGraph(Recipe.WITH_USER)
   List<Recipe> findByNameContainingIgnoreCase(String text);
 
+  @EntityGraph(Recipe.WITH_USER)
   List<Recipe> findByIngredientsTextContainingIgnoreCase(String ingredientsText);
 
+  @EntityGraph(Recipe.WITH_USER)
+  @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
   List<Recipe> findByCategory(Category category);
 
+  @EntityGraph(Recipe.WITH_USER)
+  @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
   List<Recipe> findByPrepTimeMinutesLessThan(Integer minutes);
 
+  @EntityGraph(Recipe.WITH_USER)
+  @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
   List<Recipe> findByServings(Integer servings);
 
+  @EntityGraph(Recipe.WITH_USER)
+  @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
   List<Recipe> findByPrepTimeMinutesBetween(Integer min, Integer max);
 
+  @EntityGraph(Recipe.WITH_USER)
+  @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
   @Query("SELECT r FROM Recipe r WHERE r.source = 'USER_CREATED' OR (r.source = 'SPOONACULAR' AND r.user.id = :userId)")
   Page<Recipe> findPublicAndUserSpoonacularRecipes(@Param("userId") Integer userId, Pageable pageable);
+
+  // Used by the in-memory index searches to load matched ids
+  @Override
+  @EntityGraph(Recipe.WITH_USER)
+  List<Recipe> findAllById(Iterable<Integer> ids);
+
+  // Summary projections for the list endpoints (?view=summary) - only the columns a list shows
+  String SELECT_SUMMARY =
+      "SELECT new com.learning.recipeapi.dto.RecipeSummary(r.id, r.name, r.imageUrl, r.category,"
+          + " r.prepTimeMinutes, r.servings) FROM Recipe r";
+
+  @Query(
+      value =
+          SELECT_SUMMARY
+              + " WHERE r.source = 'USER_CREATED'"
+              + " OR (r.source = 'SPOONACULAR' AND r.user.id = :userId)",
+      countQuery =
+          "SELECT COUNT(r) FROM Recipe r WHERE r.source = 'USER_CREATED'"
+              + " OR (r.source = 'SPOONACULAR' AND r.user.id = :userId)")
+  Page<RecipeSummary> findPublicAndUserSpoonacularSummaries(
+      @Param("userId") Integer userId, Pageable pageable);
+
+  @Query(SELECT_SUMMARY + " WHERE r.id IN :ids ORDER BY r.id")
+  List<RecipeSummary> findSummariesByIdIn(@Param("ids") Collection<Integer> ids);
+
+  // Same matches as findByNameContainingIgnoreCase / findByIngredientsTextContainingIgnoreCase:
+  // % and _ in the text are literal characters, not wildcards
+  default List<RecipeSummary> findSummariesByNameContainingIgnoreCase(String text) {
+    return findSummariesByNameLike(RecipeRepositoryCustom.containsPattern(text));
+  }
+
+  default List<RecipeSummary> findSummariesByIngredientsTextContainingIgnoreCase(String text) {
+    return findSummariesByIngredientsTextLike(RecipeRepositoryCustom.containsPattern(text));
+  }
+
+  @Query(SELECT_SUMMARY + " WHERE LOWER(r.name) LIKE :pattern ESCAPE '!'")
+  List<RecipeSummary> findSummariesByNameLike(@Param("pattern") String pattern);
+
+  @Query(SELECT_SUMMARY + " WHERE LOWER(r.ingredientsText) LIKE :pattern ESCAPE '!'")
+  List<RecipeSummary> findSummariesByIngredientsTextLike(@Param("pattern") String pattern);
+
+  @Query(SELECT_SUMMARY + " WHERE r.category = :category")
+  List<RecipeSummary> findSummariesByCategory(@Param("category") Category category);
+
+  @Query(SELECT_SUMMARY + " WHERE r.prepTimeMinutes < :minutes")
+  List<RecipeSummary> findSummariesByPrepTimeMinutesLessThan(@Param("minutes") Integer minutes);
+
+  @Query(SELECT_SUMMARY + " WHERE r.servings = :servings")
+  List<RecipeSummary> findSummariesByServings(@Param("servings") Integer servings);
+
+  // Only id and name - used to warm the in-memory name index at startup
+  @Query("SELECT new com.learning.recipeapi.dto.RecipeNameEntry(r.id, r.name) FROM Recipe r")
+  List<RecipeNameEntry> findAllNameEntries();
+
+  // Only id and ingredients text - used to warm the ingredient index at startup
+  @Query(
+      "SELECT new com.learning.recipeapi.dto.RecipeIngredientsEntry(r.id, r.ingredientsText)"
+          + " FROM Recipe r")
+  List<RecipeIngredientsEntry> findAllIngredientsEntries();
+
+  // Name, ingredients and owner - used to warm the duplicate index at startup
+  @Query(
+      "SELECT new com.learning.recipeapi.dto.RecipeTextEntry(r.id, r.name, r.ingredientsText,"
+          + " r.source, u.id) FROM Recipe r LEFT JOIN r.user u")
+  List<RecipeTextEntry> findAllTextEntries();
+
+  // Recipes written since the given time, through this or any other instance - used by
+  // RecipeIndexRefresher to keep the in-memory indexes current
+  @Query(
+      "SELECT new com.learning.recipeapi.dto.RecipeTextEntry(r.id, r.name, r.ingredientsText,"
+          + " r.source, u.id) FROM Recipe r LEFT JOIN r.user u WHERE r.updatedAt > :since")
+  List<RecipeTextEntry> findTextEntriesUpdatedSince(@Param("since") Instant since);
+
+  // Every id, to drop recipes deleted through other instances from the in-memory indexes
+  @Query("SELECT r.id FROM Recipe r")
+  List<Integer> findAllIds();
+
+  // Which of these Spoonacular recipes has the user already saved?
+  @Query(
+      "SELECT r.spoonacularId FROM Recipe r WHERE r.user.id = :userId"
+          + " AND r.spoonacularId IN :spoonacularIds")
+  List<Integer> findImportedSpoonacularIds(
+      @Param("userId") Integer userId, @Param("spoonacularIds") List<Integer> spoonacularIds);
+
+  // PostgreSQL only. The weighted document idx_recipe_search_document is built on (V8 migration)
+  // - must stay identical to the index expression, or PostgreSQL can't use the index
+  String SEARCH_DOCUMENT =
+      "(setweight(to_tsvector('english', coalesce(name, '')), 'A') || "
+          + "setweight(to_tsvector('english', coalesce(description, '')), 'B') || "
+          + "setweight(to_tsvector('english', coalesce(ingredients_text, '')), 'C') || "
+          + "setweight(to_tsvector('english', coalesce(instructions, '')), 'D'))";
+
+  // Matching recipes best first - shared by the entity and summary searches below
+  String FULL_TEXT_MATCH =
+      " FROM recipe r, websearch_to_tsquery('english', :query) q "
+          + "WHERE "
+          + SEARCH_DOCUMENT
+          + " @@ q "
+          + "ORDER BY ts_rank("
+          + SEARCH_DOCUMENT
+          + ", q) DESC, r.id "
+          + "LIMIT :limit";
+
+  // Native queries can't take an entity graph; owners are batch-loaded instead
+  @Query(value = "SELECT r.*" + FULL_TEXT_MATCH, nativeQuery = true)
+  List<Recipe> fullTextSearch(@Param("query") String query, @Param("limit") int limit);
+
+  // Only the summary columns, aliased to the RecipeSummaryRow properties (quoted, so PostgreSQL
+  // keeps the camel case)
+  @Query(
+      value =
+          "SELECT r.id, r.name, r.image_url AS \"imageUrl\", r.category,"
+              + " r.prep_time_minutes AS \"prepTimeMinutes\", r.servings"
+              + FULL_TEXT_MATCH,
+      nativeQuery = true)
+  List<RecipeSummaryRow> fullTextSearchSummaries(
+      @Param("query") String query, @Param("limit") int limit);
 }
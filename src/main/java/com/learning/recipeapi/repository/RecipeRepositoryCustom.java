@@ -0,0 +1,51 @@
+package com.learning.recipeapi.repository;
+
+import com.learning.recipeapi.dto.RecipeExportRow;
+import com.learning.recipeapi.dto.RecipeFilter;
+import com.learning.recipeapi.dto.RecipeSummary;
+import com.learning.recipeapi.entity.Recipe;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Stream;
+
+// Queries that are built in code rather than derived from method names (see RecipeRepositoryImpl)
+public interface RecipeRepositoryCustom {
+
+  // Properties findFiltered can sort by - anything else would be an unindexed (or unknown) sort
+  Set<String> FILTER_SORT_PROPERTIES = Set.of("id", "name", "prepTimeMinutes", "servings");
+
+  // "50%_off" -> "%50!%!_off%" for LOWER(column) LIKE :pattern ESCAPE '!', so the user's text is
+  // matched literally and case-insensitively
+  static String containsPattern(String text) {
+    String escaped =
+        text.toLowerCase(Locale.ROOT).replace("!", "!!").replace("%", "!%").replace("_", "!_");
+    return "%" + escaped + "%";
+  }
+
+  // Keyset ("seek") pagination over the same rows as findPublicAndUserSpoonacularRecipes.
+  // Pass lastId = null for the first page, otherwise the sort value and id of the last row seen
+  List<Recipe> findFeedPage(
+      Integer userId, FeedSort sort, String lastSortValue, Integer lastId, int limit);
+
+  // Same page as findFeedPage, but only the summary columns
+  List<RecipeSummary> findFeedSummaryPage(
+      Integer userId, FeedSort sort, String lastSortValue, Integer lastId, int limit);
+
+  // Every recipe visible to the user, in id order, read through a forward-only cursor fetching
+  // fetchSize rows at a time. Must be consumed inside a transaction and closed afterwards
+  Stream<RecipeExportRow> streamExportRows(Integer userId, int fetchSize);
+
+  // Recipes visible to the user that match every criterion in the filter, as one query plus a
+  // count query (skipped when the page shows there are no more rows). Sort properties must be in
+  // FILTER_SORT_PROPERTIES; id is always added last so pages don't overlap
+  Page<Recipe> findFiltered(Integer userId, RecipeFilter filter, Pageable pageable);
+
+  // Same as findFiltered, but only the summary columns
+  Page<RecipeSummary> findFilteredSummaries(
+      Integer userId, RecipeFilter filter, Pageable pageable);
+}
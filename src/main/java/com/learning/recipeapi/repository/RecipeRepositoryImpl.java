@@ -0,0 +1,213 @@
+package com.learning.recipeapi.repository;
+
+import com.learning.recipeapi.RecipeSource;
+import com.learning.recipeapi.dto.RecipeExportRow;
+import com.learning.recipeapi.dto.RecipeFilter;
+import com.learning.recipeapi.dto.RecipeSummary;
+import com.learning.recipeapi.entity.Recipe;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import org.hibernate.jpa.HibernateHints;
+import org.hibernate.jpa.SpecHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+// Spring Data picks this class up by name and merges it into RecipeRepository
+public class RecipeRepositoryImpl implements RecipeRepositoryCustom {
+
+  private static final String VISIBLE_TO_USER =
+      "(r.source = :userCreated OR (r.source = :spoonacular AND r.user.id = :userId))";
+
+  private static final String SELECT_SUMMARY =
+      "SELECT new com.learning.recipeapi.dto.RecipeSummary(r.id, r.name, r.imageUrl,"
+          + " r.category, r.prepTimeMinutes, r.servings)";
+
+  @PersistenceContext private EntityManager entityManager;
+
+  @Override
+  public List<Recipe> findFeedPage(
+      Integer userId, FeedSort sort, String lastSortValue, Integer lastId, int limit) {
+    return feedQuery("SELECT r", Recipe.class, userId, sort, lastSortValue, lastId, limit);
+  }
+
+  @Override
+  public List<RecipeSummary> findFeedSummaryPage(
+      Integer userId, FeedSort sort, String lastSortValue, Integer lastId, int limit) {
+    return feedQuery(
+        SELECT_SUMMARY, RecipeSummary.class, userId, sort, lastSortValue, lastId, limit);
+  }
+
+  // The seek query is the same for entities and projections - only the select clause changes
+  private <T> List<T> feedQuery(
+      String select,
+      Class<T> resultType,
+      Integer userId,
+      FeedSort sort,
+      String lastSortValue,
+      Integer lastId,
+      int limit) {
+    String column = sort.getColumn();
+    String comparison = sort.isAscending() ? ">" : "<";
+    String direction = sort.isAscending() ? "ASC" : "DESC";
+
+    StringBuilder jpql =
+        new StringBuilder(select).append(" FROM Recipe r WHERE ").append(VISIBLE_TO_USER);
+    if (lastId != null) {
+      // A row-value comparison, (key, id) > (:lastKey, :lastId), is one range on the (name, id)
+      // index - the same test written as "key > ? OR (key = ? AND id > ?)" often isn't
+      if (sort.isIdOnly()) {
+        jpql.append(" AND r.id ").append(comparison).append(" :lastId");
+      } else {
+        jpql.append(" AND (").append(column).append(", r.id) ").append(comparison)
+            .append(" (:lastKey, :lastId)");
+      }
+    }
+    jpql.append(" ORDER BY ");
+    if (!sort.isIdOnly()) {
+      jpql.append(column).append(' ').append(direction).append(", ");
+    }
+    jpql.append("r.id ").append(direction);
+
+    TypedQuery<T> query = entityManager.createQuery(jpql.toString(), resultType);
+    query.setParameter("userCreated", RecipeSource.USER_CREATED);
+    query.setParameter("spoonacular", RecipeSource.SPOONACULAR);
+    query.setParameter("userId", userId);
+    if (lastId != null) {
+      query.setParameter("lastId", lastId);
+      if (!sort.isIdOnly()) {
+        query.setParameter("lastKey", lastSortValue);
+      }
+    }
+    if (resultType == Recipe.class) {
+      // Same fetch plan as the derived queries in RecipeRepository
+      query.setHint(
+          SpecHints.HINT_SPEC_FETCH_GRAPH, entityManager.getEntityGraph(Recipe.WITH_USER));
+    }
+    query.setMaxResults(limit);
+    return query.getResultList();
+  }
+
+  @Override
+  public Page<Recipe> findFiltered(Integer userId, RecipeFilter filter, Pageable pageable) {
+    return filterQuery("SELECT r", Recipe.class, userId, filter, pageable);
+  }
+
+  @Override
+  public Page<RecipeSummary> findFilteredSummaries(
+      Integer userId, RecipeFilter filter, Pageable pageable) {
+    return filterQuery(SELECT_SUMMARY, RecipeSummary.class, userId, filter, pageable);
+  }
+
+  // Only the criteria that were given end up in the WHERE clause, so the database sees one
+  // plain query it can use the category / prep time / servings indexes for
+  private <T> Page<T> filterQuery(
+      String select, Class<T> resultType, Integer userId, RecipeFilter filter, Pageable pageable) {
+    Map<String, Object> parameters = new LinkedHashMap<>();
+    parameters.put("userCreated", RecipeSource.USER_CREATED);
+    parameters.put("spoonacular", RecipeSource.SPOONACULAR);
+    parameters.put("userId", userId);
+
+    StringBuilder where = new StringBuilder(" FROM Recipe r WHERE ").append(VISIBLE_TO_USER);
+    if (filter.categories() != null && !filter.categories().isEmpty()) {
+      where.append(" AND r.category IN :categories");
+      parameters.put("categories", filter.categories());
+    }
+    if (filter.minPrepTime() != null) {
+      where.append(" AND r.prepTimeMinutes >= :minPrepTime");
+      parameters.put("minPrepTime", filter.minPrepTime());
+    }
+    if (filter.maxPrepTime() != null) {
+      where.append(" AND r.prepTimeMinutes <= :maxPrepTime");
+      parameters.put("maxPrepTime", filter.maxPrepTime());
+    }
+    if (filter.servings() != null) {
+      where.append(" AND r.servings = :servings");
+      parameters.put("servings", filter.servings());
+    }
+    if (filter.source() != null) {
+      where.append(" AND r.source = :source");
+      parameters.put("source", filter.source());
+    }
+    if (filter.name() != null && !filter.name().isBlank()) {
+      where.append(" AND LOWER(r.name) LIKE :name ESCAPE '!'");
+      parameters.put("name", RecipeRepositoryCustom.containsPattern(filter.name().trim()));
+    }
+    if (filter.ingredient() != null && !filter.ingredient().isBlank()) {
+      where.append(" AND LOWER(r.ingredientsText) LIKE :ingredient ESCAPE '!'");
+      parameters.put(
+          "ingredient", RecipeRepositoryCustom.containsPattern(filter.ingredient().trim()));
+    }
+
+    TypedQuery<T> query =
+        entityManager.createQuery(select + where + orderBy(pageable.getSort()), resultType);
+    parameters.forEach(query::setParameter);
+    if (resultType == Recipe.class) {
+      query.setHint(
+          SpecHints.HINT_SPEC_FETCH_GRAPH, entityManager.getEntityGraph(Recipe.WITH_USER));
+    }
+    if (pageable.isPaged()) {
+      query.setFirstResult((int) pageable.getOffset());
+      query.setMaxResults(pageable.getPageSize());
+    }
+
+    return PageableExecutionUtils.getPage(
+        query.getResultList(),
+        pageable,
+        () -> {
+          TypedQuery<Long> count = entityManager.createQuery("SELECT COUNT(r)" + where, Long.class);
+          parameters.forEach(count::setParameter);
+          return count.getSingleResult();
+        });
+  }
+
+  private static String orderBy(Sort sort) {
+    StringBuilder orderBy = new StringBuilder(" ORDER BY ");
+    boolean sortedById = false;
+    for (Sort.Order order : sort) {
+      if (!FILTER_SORT_PROPERTIES.contains(order.getProperty())) {
+        throw new IllegalArgumentException("Unsupported sort property: " + order.getProperty());
+      }
+      orderBy
+          .append("r.")
+          .append(order.getProperty())
+          .append(order.isAscending() ? " ASC" : " DESC")
+          .append(", ");
+      sortedById |= order.getProperty().equals("id");
+    }
+    if (sortedById) {
+      return orderBy.substring(0, orderBy.length() - 2);
+    }
+    // newest first by default, and id as the tie-breaker after any other sort
+    return orderBy.append(sort.isSorted() ? "r.id ASC" : "r.id DESC").toString();
+  }
+
+  @Override
+  public Stream<RecipeExportRow> streamExportRows(Integer userId, int fetchSize) {
+    // Same visibility as VISIBLE_TO_USER, but through a LEFT JOIN so the username can be selected
+    // without dropping recipes that have no user
+    TypedQuery<RecipeExportRow> query =
+        entityManager.createQuery(
+            "SELECT new com.learning.recipeapi.dto.RecipeExportRow(r.id, r.name, r.description,"
+                + " r.ingredientsText, r.instructions, r.prepTimeMinutes, r.servings, r.category,"
+                + " r.source, r.imageUrl, r.spoonacularId, u.username)"
+                + " FROM Recipe r LEFT JOIN r.user u"
+                + " WHERE r.source = :userCreated OR (r.source = :spoonacular AND u.id = :userId)"
+                + " ORDER BY r.id",
+            RecipeExportRow.class);
+    query.setParameter("userCreated", RecipeSource.USER_CREATED);
+    query.setParameter("spoonacular", RecipeSource.SPOONACULAR);
+    query.setParameter("userId", userId);
+    // Hibernate streams through a FORWARD_ONLY ScrollableResults; the fetch size stops the JDBC
+    // driver from buffering the whole result (PostgreSQL only honours it inside a transaction)
+    query.setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize);
+    return query.getResultStream();
+  }
+}
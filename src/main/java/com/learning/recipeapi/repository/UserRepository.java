@@ -1,7 +1,10 @@
 package com.learning.recipeapi.repository;
 
 import com.learning.recipeapi.entity.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
@@ -12,5 +15,10 @@ public interface UserRepository extends JpaRepository<User, Long> {
 
   public boolean existsByEmail(String email);
 
+  // JWT lookups on a UserPrincipalCache miss - answered from the query cache when possible
+  @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
   Optional<User> findByUsername(String username);
+
+  // the repository is keyed on Long but User ids are Integer, so findById can't be used here
+  Optional<User> findOneById(Integer id);
 }
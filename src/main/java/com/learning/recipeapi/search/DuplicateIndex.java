@@ -0,0 +1,406 @@
+package com.learning.recipeapi.search;
+
+import com.learning.recipeapi.RecipeSource;
+import com.learning.recipeapi.dto.DuplicateCluster;
+import com.learning.recipeapi.dto.RecipeNameEntry;
+import com.learning.recipeapi.dto.RecipeTextEntry;
+import com.learning.recipeapi.repository.RecipeRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Near-duplicate detection with MinHash + locality-sensitive hashing
+// - each recipe becomes a set of words from its name and ingredients text
+// - a MinHash signature (bands * rows small hashes) estimates how much two such sets overlap
+//   (Jaccard similarity) by counting how many positions agree
+// - the signature is cut into bands and each band is a bucket key; recipes sharing any bucket
+//   are candidates, and only those are compared. Similar recipes almost always share a band,
+//   dissimilar ones almost never do, so a lookup touches a handful of recipes, not the table
+// Writes from other instances are picked up by RecipeIndexRefresher
+// A bucket only grows large when many recipes have the same few words, and comparing every pair
+// in it costs k^2 - at most max-bucket-size recipes of a bucket are looked at
+@Component
+public class DuplicateIndex {
+  private static final Logger logger = LoggerFactory.getLogger(DuplicateIndex.class);
+
+  // Filler and measurement words say nothing about which dish it is
+  private static final Set<String> STOP_WORDS =
+      Set.of(
+          "and", "or", "of", "to", "for", "the", "a", "an", "with", "in", "cup", "cups", "tsp",
+          "teaspoon", "teaspoons", "tbsp", "tablespoon", "tablespoons", "oz", "ounce", "ounces",
+          "lb", "lbs", "pound", "pounds", "g", "kg", "ml", "l", "pinch");
+
+  // signature, display name and owner (null when every user can see the recipe)
+  private record Entry(int[] signature, String name, Integer ownerId) {}
+
+  // Every pair of indexed recipes at or above the threshold, packed as (smaller id << 32 | larger
+  // id), and the index generation it was built from
+  private record SimilarPairs(long[] pairs, long generation, Instant builtAt) {}
+
+  private final RecipeRepository recipeRepository;
+  private final double threshold;
+  private final int bands;
+  private final int rows;
+  private final int maxBucketSize;
+  private final Duration clustersRefreshInterval;
+  private final long[] seeds;
+
+  private final Map<Integer, Entry> entries = new ConcurrentHashMap<>();
+
+  // band bucket key -> ids of recipes whose signature has exactly those values in that band
+  private final Map<Long, Set<Integer>> buckets = new ConcurrentHashMap<>();
+
+  private volatile boolean ready = false;
+
+  // bumped by every put/remove, so a cached SimilarPairs knows whether it is out of date
+  private volatile long generation = 0;
+  private volatile SimilarPairs similarPairs;
+  private final Object similarPairsLock = new Object();
+
+  @Autowired
+  public DuplicateIndex(
+      RecipeRepository recipeRepository,
+      @Value("${recipe.duplicates.threshold:0.8}") double threshold,
+      @Value("${recipe.duplicates.bands:16}") int bands,
+      @Value("${recipe.duplicates.rows:8}") int rows,
+      @Value("${recipe.duplicates.max-bucket-size:200}") int maxBucketSize,
+      @Value("${recipe.duplicates.clusters.refresh-interval:5m}")
+          Duration clustersRefreshInterval) {
+    this.recipeRepository = recipeRepository;
+    this.threshold = threshold;
+    this.bands = bands;
+    this.rows = rows;
+    this.maxBucketSize = maxBucketSize;
+    this.clustersRefreshInterval = clustersRefreshInterval;
+    // fixed seed so signatures are the same on every start and every instance
+    SplittableRandom random = new SplittableRandom(0x5EED_CAFEL);
+    this.seeds = new long[bands * rows];
+    for (int i = 0; i < seeds.length; i++) {
+      seeds[i] = random.nextLong();
+    }
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void load() {
+    List<RecipeTextEntry> recipes = recipeRepository.findAllTextEntries();
+    for (RecipeTextEntry recipe : recipes) {
+      put(
+          recipe.id(),
+          recipe.name(),
+          recipe.ingredientsText(),
+          ownerOf(recipe.source(), recipe.userId()));
+    }
+    ready = true;
+    logger.info(
+        "Duplicate index loaded with {} recipes in {} buckets", entries.size(), buckets.size());
+  }
+
+  public boolean isReady() {
+    return ready;
+  }
+
+  // Spoonacular imports are private to the user who imported them
+  public static Integer ownerOf(RecipeSource source, Integer userId) {
+    return source == RecipeSource.SPOONACULAR ? userId : null;
+  }
+
+  public synchronized void put(Integer id, String name, String ingredientsText, Integer ownerId) {
+    if (id == null) {
+      return;
+    }
+    remove(id);
+    int[] signature = signature(name, ingredientsText);
+    if (signature == null) {
+      return;
+    }
+    entries.put(id, new Entry(signature, name, ownerId));
+    generation++;
+    for (int band = 0; band < bands; band++) {
+      buckets
+          .computeIfAbsent(bucketKey(signature, band), key -> ConcurrentHashMap.newKeySet())
+          .add(id);
+    }
+  }
+
+  public synchronized void remove(Integer id) {
+    if (id == null) {
+      return;
+    }
+    Entry previous = entries.remove(id);
+    if (previous == null) {
+      return;
+    }
+    generation++;
+    for (int band = 0; band < bands; band++) {
+      long key = bucketKey(previous.signature(), band);
+      Set<Integer> ids = buckets.get(key);
+      if (ids != null) {
+        ids.remove(id);
+        if (ids.isEmpty()) {
+          buckets.remove(key);
+        }
+      }
+    }
+  }
+
+  // Ids of recipes this user can see that are at least `threshold` similar to this name +
+  // ingredients, most similar first
+  public List<Integer> findSimilar(String name, String ingredientsText, Integer userId) {
+    int[] signature = signature(name, ingredientsText);
+    if (signature == null) {
+      return List.of();
+    }
+    Set<Integer> candidates = new HashSet<>();
+    for (int band = 0; band < bands; band++) {
+      Set<Integer> ids = buckets.get(bucketKey(signature, band));
+      if (ids != null) {
+        ids.stream().limit(maxBucketSize).forEach(candidates::add);
+      }
+    }
+    Map<Integer, Double> matches = new HashMap<>();
+    for (Integer id : candidates) {
+      Entry entry = entries.get(id);
+      if (visibleTo(entry, userId)) {
+        double similarity = similarity(signature, entry.signature());
+        if (similarity >= threshold) {
+          matches.put(id, similarity);
+        }
+      }
+    }
+    List<Integer> result = new ArrayList<>(matches.keySet());
+    result.sort(
+        Comparator.comparing((Integer id) -> matches.get(id)).reversed().thenComparing(id -> id));
+    return result;
+  }
+
+  // Groups of likely duplicates among the recipes this user can see, biggest groups first.
+  // Built from the cached similar pairs, so it costs one pass over those pairs rather than a scan
+  // of the index. Recipes added since the pairs were built show up after the next rebuild
+  public List<DuplicateCluster> clusters(Integer userId, int limit) {
+    Map<Integer, Integer> parent = new HashMap<>();
+    for (long pair : similarPairs()) {
+      int a = (int) (pair >>> 32);
+      int b = (int) pair;
+      // removed recipes are no longer in entries, so they drop out here too
+      if (visibleTo(entries.get(a), userId) && visibleTo(entries.get(b), userId)) {
+        union(parent, a, b);
+      }
+    }
+
+    Map<Integer, Set<Integer>> groups = new HashMap<>();
+    for (Integer id : parent.keySet()) {
+      groups.computeIfAbsent(find(parent, id), root -> new TreeSet<>()).add(id);
+    }
+    List<DuplicateCluster> clusters = new ArrayList<>();
+    groups.values().stream()
+        .filter(group -> group.size() > 1)
+        .sorted(
+            Comparator.comparing((Set<Integer> group) -> group.size())
+                .reversed()
+                .thenComparing(group -> group.iterator().next()))
+        .limit(limit)
+        .forEach(
+            group -> {
+              List<RecipeNameEntry> recipes = new ArrayList<>();
+              for (Integer id : group) {
+                Entry entry = entries.get(id);
+                if (entry != null) {
+                  recipes.add(new RecipeNameEntry(id, entry.name()));
+                }
+              }
+              clusters.add(new DuplicateCluster(recipes));
+            });
+    return clusters;
+  }
+
+  public int size() {
+    return entries.size();
+  }
+
+  // The cached pairs, rebuilt when the index has changed and they are older than
+  // clusters.refresh-interval
+  private long[] similarPairs() {
+    SimilarPairs current = similarPairs;
+    if (isFresh(current)) {
+      return current.pairs();
+    }
+    synchronized (similarPairsLock) {
+      current = similarPairs;
+      if (isFresh(current)) {
+        return current.pairs();
+      }
+      long builtFrom = generation;
+      Instant started = Instant.now();
+      long[] pairs = buildSimilarPairs();
+      similarPairs = new SimilarPairs(pairs, builtFrom, Instant.now());
+      logger.debug(
+          "Found {} similar recipe pairs in {} ms",
+          pairs.length,
+          Duration.between(started, Instant.now()).toMillis());
+      return pairs;
+    }
+  }
+
+  private boolean isFresh(SimilarPairs pairs) {
+    return pairs != null
+        && (pairs.generation() == generation
+            || Instant.now().isBefore(pairs.builtAt().plus(clustersRefreshInterval)));
+  }
+
+  // Only recipes that share a bucket are ever compared
+  private long[] buildSimilarPairs() {
+    Set<Long> compared = new HashSet<>();
+    List<Long> similar = new ArrayList<>();
+    for (Set<Integer> bucket : buckets.values()) {
+      if (bucket.size() < 2) {
+        continue;
+      }
+      List<Integer> ids = bucket.stream().limit(maxBucketSize).toList();
+      for (int i = 0; i < ids.size(); i++) {
+        for (int j = i + 1; j < ids.size(); j++) {
+          int a = Math.min(ids.get(i), ids.get(j));
+          int b = Math.max(ids.get(i), ids.get(j));
+          long pair = ((long) a << 32) | (b & 0xffffffffL);
+          // the same pair usually shares several bands - compare it once
+          if (!compared.add(pair)) {
+            continue;
+          }
+          Entry first = entries.get(a);
+          Entry second = entries.get(b);
+          if (first != null
+              && second != null
+              && similarity(first.signature(), second.signature()) >= threshold) {
+            similar.add(pair);
+          }
+        }
+      }
+    }
+    return similar.stream().mapToLong(Long::longValue).toArray();
+  }
+
+  // Another user's Spoonacular import is neither a duplicate of nor clustered with anything
+  private static boolean visibleTo(Entry entry, Integer userId) {
+    return entry != null && (entry.ownerId() == null || entry.ownerId().equals(userId));
+  }
+
+  // Fraction of signature positions that agree - an estimate of the Jaccard similarity
+  private static double similarity(int[] first, int[] second) {
+    int equal = 0;
+    for (int i = 0; i < first.length; i++) {
+      if (first[i] == second[i]) {
+        equal++;
+      }
+    }
+    return (double) equal / first.length;
+  }
+
+  private int[] signature(String name, String ingredientsText) {
+    Set<String> features = features(name, ingredientsText);
+    if (features.isEmpty()) {
+      return null;
+    }
+    int[] signature = new int[seeds.length];
+    Arrays.fill(signature, Integer.MAX_VALUE);
+    for (String feature : features) {
+      long base = feature.hashCode();
+      for (int i = 0; i < seeds.length; i++) {
+        int hash = (int) mix(base ^ seeds[i]);
+        if (hash < signature[i]) {
+          signature[i] = hash;
+        }
+      }
+    }
+    return signature;
+  }
+
+  // Name words and ingredient words are kept apart ("n:" / "i:") so "lemon cake" and a cake
+  // that merely contains lemon don't look alike just because they share the word
+  static Set<String> features(String name, String ingredientsText) {
+    Set<String> features = new LinkedHashSet<>();
+    for (String word : words(name)) {
+      features.add("n:" + word);
+    }
+    for (String word : words(ingredientsText)) {
+      features.add("i:" + word);
+    }
+    return features;
+  }
+
+  private static List<String> words(String text) {
+    List<String> words = new ArrayList<>();
+    if (text == null) {
+      return words;
+    }
+    for (String raw : text.toLowerCase(Locale.ROOT).split("[^a-z]+")) {
+      if (raw.length() < 2 || STOP_WORDS.contains(raw)) {
+        continue;
+      }
+      // same plural folding as the ingredient index: "onions" -> "onion"
+      if (raw.length() > 3 && raw.endsWith("s") && !raw.endsWith("ss")) {
+        raw = raw.substring(0, raw.length() - 1);
+      }
+      words.add(raw);
+    }
+    return words;
+  }
+
+  private long bucketKey(int[] signature, int band) {
+    int hash = band;
+    for (int row = 0; row < rows; row++) {
+      hash = hash * 31 + signature[band * rows + row];
+    }
+    // band number in the high bits so equal values in different bands don't share a bucket
+    return ((long) band << 32) | (hash & 0xffffffffL);
+  }
+
+  private static int find(Map<Integer, Integer> parent, int id) {
+    int root = id;
+    while (parent.getOrDefault(root, root) != root) {
+      root = parent.get(root);
+    }
+    parent.putIfAbsent(id, id);
+    // path compression
+    int current = id;
+    while (current != root) {
+      int next = parent.get(current);
+      parent.put(current, root);
+      current = next;
+    }
+    return root;
+  }
+
+  private static void union(Map<Integer, Integer> parent, int a, int b) {
+    int rootA = find(parent, a);
+    int rootB = find(parent, b);
+    if (rootA != rootB) {
+      parent.put(Math.max(rootA, rootB), Math.min(rootA, rootB));
+    }
+  }
+
+  // SplitMix64 finalizer - turns (feature hash ^ seed) into a well-spread 64-bit value
+  private static long mix(long z) {
+    z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+    z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+    return z ^ (z >>> 31);
+  }
+}
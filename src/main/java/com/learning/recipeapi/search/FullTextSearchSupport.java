@@ -0,0 +1,71 @@
+package com.learning.recipeapi.search;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+// Turns on PostgreSQL full-text search for the recipe table
+// The GIN index is on the weighted search document expression itself (no extra column), so
+// PostgreSQL keeps it up to date on every insert/update - no triggers or application code needed.
+// It is built by the V8 migration (db/migration/postgresql); this only checks it is there and
+// finished building - a failed CONCURRENTLY build leaves an invalid index behind.
+// On any other database (H2 in tests) this stays disabled and callers use the LIKE queries.
+@Component
+public class FullTextSearchSupport {
+  private static final Logger logger = LoggerFactory.getLogger(FullTextSearchSupport.class);
+
+  private static final String COUNT_SEARCH_INDEX =
+      "SELECT COUNT(*) FROM pg_index i JOIN pg_class c ON c.oid = i.indexrelid "
+          + "WHERE c.relname = 'idx_recipe_search_document' AND i.indisvalid";
+
+  private final JdbcTemplate jdbcTemplate;
+  private final boolean enabled;
+
+  private volatile boolean available = false;
+
+  @Autowired
+  public FullTextSearchSupport(
+      JdbcTemplate jdbcTemplate,
+      @Value("${recipe.search.full-text.enabled:true}") boolean enabled) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.enabled = enabled;
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void initialize() {
+    if (!enabled) {
+      logger.info("Full-text search disabled by configuration");
+      return;
+    }
+    try {
+      String product =
+          jdbcTemplate.execute(
+              (ConnectionCallback<String>)
+                  connection -> connection.getMetaData().getDatabaseProductName());
+      if (!"PostgreSQL".equalsIgnoreCase(product)) {
+        logger.info("Full-text search not available on {} - using LIKE queries", product);
+        return;
+      }
+      Integer indexes = jdbcTemplate.queryForObject(COUNT_SEARCH_INDEX, Integer.class);
+      if (indexes == null || indexes == 0) {
+        logger.warn("idx_recipe_search_document is missing or invalid - using LIKE queries");
+        return;
+      }
+      available = true;
+      logger.info("PostgreSQL full-text search enabled");
+    } catch (DataAccessException e) {
+      logger.warn("Could not check full-text search - using LIKE queries: {}", e.getMessage());
+    }
+  }
+
+  public boolean isAvailable() {
+    return available;
+  }
+}
@@ -0,0 +1,219 @@
+package com.learning.recipeapi.search;
+
+import com.learning.recipeapi.dto.RecipeIngredientsEntry;
+import com.learning.recipeapi.repository.RecipeRepository;
+import org.roaringbitmap.PeekableIntIterator;
+import org.roaringbitmap.RoaringBitmap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Inverted index over Recipe.ingredientsText
+// Each ingredient word maps to a compressed bitmap of recipe ids, so "chicken AND garlic"
+// is a bitmap intersection rather than one LIKE scan per ingredient.
+// Writes from other instances are picked up by RecipeIndexRefresher
+@Component
+public class IngredientIndex {
+  private static final Logger logger = LoggerFactory.getLogger(IngredientIndex.class);
+
+  // Quantities and units carry no meaning for "what can I cook with X"
+  private static final Set<String> STOP_WORDS =
+      Set.of(
+          "and", "or", "of", "to", "for", "the", "a", "an", "with", "cup", "cups", "tsp",
+          "teaspoon", "teaspoons", "tbsp", "tablespoon", "tablespoons", "oz", "ounce", "ounces",
+          "lb", "lbs", "pound", "pounds", "g", "kg", "ml", "l", "pinch", "large", "small",
+          "medium", "fresh", "chopped", "sliced", "diced", "minced");
+
+  private final RecipeRepository recipeRepository;
+
+  // token -> ids of recipes that mention it
+  private final Map<String, RoaringBitmap> postings = new HashMap<>();
+
+  // recipe id -> tokens currently indexed for it (needed to unindex on update/delete)
+  private final Map<Integer, Set<String>> tokensByRecipe = new HashMap<>();
+
+  // RoaringBitmap is not thread-safe - many readers, occasional writer
+  private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+  private volatile boolean ready = false;
+
+  @Autowired
+  public IngredientIndex(RecipeRepository recipeRepository) {
+    this.recipeRepository = recipeRepository;
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void load() {
+    List<RecipeIngredientsEntry> entries = recipeRepository.findAllIngredientsEntries();
+    lock.writeLock().lock();
+    try {
+      for (RecipeIngredientsEntry entry : entries) {
+        index(entry.id(), entry.ingredientsText());
+      }
+      postings.values().forEach(RoaringBitmap::runOptimize);
+    } finally {
+      lock.writeLock().unlock();
+    }
+    ready = true;
+    logger.info(
+        "Ingredient index loaded with {} recipes and {} ingredient terms",
+        entries.size(),
+        postings.size());
+  }
+
+  public boolean isReady() {
+    return ready;
+  }
+
+  public void put(Integer id, String ingredientsText) {
+    if (id == null) {
+      return;
+    }
+    lock.writeLock().lock();
+    try {
+      unindex(id);
+      index(id, ingredientsText);
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  public void remove(Integer id) {
+    if (id == null) {
+      return;
+    }
+    lock.writeLock().lock();
+    try {
+      unindex(id);
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  // Each query ingredient can be several words ("olive oil") - those words must all match.
+  // The per-ingredient results are then combined with AND (ALL) or OR (ANY)
+  public List<Integer> search(List<String> ingredients, MatchMode mode) {
+    return search(ingredients, mode, Integer.MAX_VALUE);
+  }
+
+  // Same, but only the first `limit` ids - "salt" alone matches most of the table
+  public List<Integer> search(List<String> ingredients, MatchMode mode, int limit) {
+    List<Integer> result = new ArrayList<>();
+    if (ingredients == null || ingredients.isEmpty()) {
+      return result;
+    }
+
+    RoaringBitmap combined = null;
+    lock.readLock().lock();
+    try {
+      for (String ingredient : ingredients) {
+        RoaringBitmap matches = matchIngredient(ingredient);
+        if (combined == null) {
+          combined = matches;
+        } else if (mode == MatchMode.ANY) {
+          combined = RoaringBitmap.or(combined, matches);
+        } else {
+          combined = RoaringBitmap.and(combined, matches);
+        }
+        if (mode != MatchMode.ANY && combined.isEmpty()) {
+          break; // nothing left to intersect
+        }
+      }
+    } finally {
+      lock.readLock().unlock();
+    }
+
+    PeekableIntIterator iterator = combined.getIntIterator();
+    while (iterator.hasNext() && result.size() < limit) {
+      result.add(iterator.next());
+    }
+    return result;
+  }
+
+  // Caller must hold the read lock. Always returns a fresh bitmap that is safe to mutate
+  private RoaringBitmap matchIngredient(String ingredient) {
+    Set<String> terms = tokenize(ingredient);
+    if (terms.isEmpty()) {
+      return new RoaringBitmap();
+    }
+    RoaringBitmap matches = null;
+    for (String term : terms) {
+      RoaringBitmap ids = postings.get(term);
+      if (ids == null) {
+        return new RoaringBitmap();
+      }
+      matches = matches == null ? ids.clone() : RoaringBitmap.and(matches, ids);
+    }
+    return matches;
+  }
+
+  // Caller must hold the write lock
+  private void index(Integer id, String ingredientsText) {
+    Set<String> tokens = tokenize(ingredientsText);
+    if (tokens.isEmpty()) {
+      return;
+    }
+    for (String token : tokens) {
+      postings.computeIfAbsent(token, key -> new RoaringBitmap()).add(id);
+    }
+    tokensByRecipe.put(id, tokens);
+  }
+
+  // Caller must hold the write lock
+  private void unindex(Integer id) {
+    Set<String> previous = tokensByRecipe.remove(id);
+    if (previous == null) {
+      return;
+    }
+    for (String token : previous) {
+      RoaringBitmap ids = postings.get(token);
+      if (ids != null) {
+        ids.remove(id);
+        if (ids.isEmpty()) {
+          postings.remove(token);
+        }
+      }
+    }
+  }
+
+  static Set<String> tokenize(String text) {
+    Set<String> tokens = new LinkedHashSet<>();
+    if (text == null) {
+      return tokens;
+    }
+    for (String word : text.toLowerCase(Locale.ROOT).split("[^\\p{L}]+")) {
+      if (word.length() < 2 || STOP_WORDS.contains(word)) {
+        continue;
+      }
+      tokens.add(singular(word));
+    }
+    return tokens;
+  }
+
+  // Very small plural folding so "eggs" finds "egg" and "tomatoes" finds "tomato"
+  private static String singular(String word) {
+    if (word.length() > 4 && word.endsWith("ies")) {
+      return word.substring(0, word.length() - 3) + "y";
+    }
+    if (word.length() > 4 && word.endsWith("oes")) {
+      return word.substring(0, word.length() - 2);
+    }
+    if (word.length() > 3 && word.endsWith("s") && !word.endsWith("ss")) {
+      return word.substring(0, word.length() - 1);
+    }
+    return word;
+  }
+}
@@ -0,0 +1,7 @@
+package com.learning.recipeapi.search;
+
+// How multiple ingredients are combined: ALL = recipe must contain every one, ANY = at least one
+public enum MatchMode {
+  ALL,
+  ANY
+}
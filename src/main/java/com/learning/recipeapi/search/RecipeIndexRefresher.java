@@ -0,0 +1,115 @@
+package com.learning.recipeapi.search;
+
+import com.learning.recipeapi.dto.RecipeTextEntry;
+import com.learning.recipeapi.repository.RecipeRepository;
+import org.roaringbitmap.RoaringBitmap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+// The in-memory indexes are loaded at startup and then only see this instance's own writes.
+// With several instances, recipes written through the others are picked up here:
+// - every refresh-interval, recipes with a newer updated_at are re-indexed (a delta load)
+// - every reconcile-interval, ids that are no longer in the table are dropped (deletes leave no
+//   updated_at to find)
+@Component
+public class RecipeIndexRefresher {
+  private static final Logger logger = LoggerFactory.getLogger(RecipeIndexRefresher.class);
+
+  // Each delta load looks this far back past the last one, for commits that landed late and
+  // for clock differences between instances. Re-indexing a recipe twice is harmless
+  private static final Duration OVERLAP = Duration.ofMinutes(1);
+
+  private final RecipeRepository recipeRepository;
+  private final RecipeNameIndex recipeNameIndex;
+  private final IngredientIndex ingredientIndex;
+  private final DuplicateIndex duplicateIndex;
+  private final Duration reconcileInterval;
+
+  // Set before the indexes load at startup, so nothing written during the load is missed
+  private volatile Instant watermark = Instant.now();
+  private volatile Instant lastReconcile = Instant.now();
+
+  @Autowired
+  public RecipeIndexRefresher(
+      RecipeRepository recipeRepository,
+      RecipeNameIndex recipeNameIndex,
+      IngredientIndex ingredientIndex,
+      DuplicateIndex duplicateIndex,
+      @Value("${recipe.search.index.reconcile-interval:10m}") Duration reconcileInterval) {
+    this.recipeRepository = recipeRepository;
+    this.recipeNameIndex = recipeNameIndex;
+    this.ingredientIndex = ingredientIndex;
+    this.duplicateIndex = duplicateIndex;
+    this.reconcileInterval = reconcileInterval;
+  }
+
+  @Scheduled(
+      initialDelayString = "${recipe.search.index.refresh-interval:30s}",
+      fixedDelayString = "${recipe.search.index.refresh-interval:30s}")
+  public void refresh() {
+    if (!recipeNameIndex.isReady() || !ingredientIndex.isReady() || !duplicateIndex.isReady()) {
+      return;
+    }
+    try {
+      applyChanges();
+      if (Instant.now().isAfter(lastReconcile.plus(reconcileInterval))) {
+        removeDeleted();
+      }
+    } catch (RuntimeException e) {
+      // keep the schedule alive, the next run covers the same window again
+      logger.warn("Recipe index refresh failed: {}", e.getMessage());
+    }
+  }
+
+  // Re-indexes every recipe written since the last run, returns how many
+  public int applyChanges() {
+    Instant started = Instant.now();
+    List<RecipeTextEntry> changed =
+        recipeRepository.findTextEntriesUpdatedSince(watermark.minus(OVERLAP));
+    for (RecipeTextEntry recipe : changed) {
+      recipeNameIndex.put(recipe.id(), recipe.name());
+      ingredientIndex.put(recipe.id(), recipe.ingredientsText());
+      duplicateIndex.put(
+          recipe.id(),
+          recipe.name(),
+          recipe.ingredientsText(),
+          DuplicateIndex.ownerOf(recipe.source(), recipe.userId()));
+    }
+    watermark = started;
+    if (!changed.isEmpty()) {
+      logger.debug("Re-indexed {} recipes changed since the last refresh", changed.size());
+    }
+    return changed.size();
+  }
+
+  // Drops indexed recipes that are gone from the table, returns how many
+  public int removeDeleted() {
+    // Snapshot the index before reading the table: a recipe indexed after this point can't be
+    // mistaken for a deleted one
+    RoaringBitmap indexed = recipeNameIndex.ids();
+    RoaringBitmap existing = new RoaringBitmap();
+    for (Integer id : recipeRepository.findAllIds()) {
+      existing.add(id);
+    }
+    RoaringBitmap deleted = RoaringBitmap.andNot(indexed, existing);
+    deleted.forEach(
+        (int id) -> {
+          recipeNameIndex.remove(id);
+          ingredientIndex.remove(id);
+          duplicateIndex.remove(id);
+        });
+    lastReconcile = Instant.now();
+    if (!deleted.isEmpty()) {
+      logger.info("Removed {} deleted recipes from the indexes", deleted.getCardinality());
+    }
+    return deleted.getCardinality();
+  }
+}
@@ -0,0 +1,212 @@
+package com.learning.recipeapi.search;
+
+import com.learning.recipeapi.dto.RecipeNameEntry;
+import com.learning.recipeapi.repository.RecipeRepository;
+import org.roaringbitmap.PeekableIntIterator;
+import org.roaringbitmap.RoaringBitmap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// In-memory trigram index over Recipe.name
+// Answers case-insensitive "name contains x" lookups without a LIKE '%x%' table scan:
+// every 3-character window of the query must appear in a matching name, so we intersect
+// the posting bitmaps for those trigrams and then confirm each candidate with a real contains().
+// Writes from other instances are picked up by RecipeIndexRefresher
+@Component
+public class RecipeNameIndex {
+  private static final Logger logger = LoggerFactory.getLogger(RecipeNameIndex.class);
+  private static final int GRAM_SIZE = 3;
+
+  private final RecipeRepository recipeRepository;
+
+  // recipe id -> lower-cased name (used to verify candidates and to unindex on update/delete)
+  private final Map<Integer, String> names = new HashMap<>();
+
+  // every indexed id, so short queries and reconciling can walk ids in order
+  private final RoaringBitmap ids = new RoaringBitmap();
+
+  // trigram -> ids of recipes whose name contains that trigram (same compressed bitmaps as
+  // IngredientIndex, much smaller than sets of boxed ids)
+  private final Map<String, RoaringBitmap> postings = new HashMap<>();
+
+  // RoaringBitmap is not thread-safe - many readers, occasional writer
+  private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+  private volatile boolean ready = false;
+
+  @Autowired
+  public RecipeNameIndex(RecipeRepository recipeRepository) {
+    this.recipeRepository = recipeRepository;
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void load() {
+    List<RecipeNameEntry> entries = recipeRepository.findAllNameEntries();
+    lock.writeLock().lock();
+    try {
+      for (RecipeNameEntry entry : entries) {
+        index(entry.id(), entry.name());
+      }
+      postings.values().forEach(RoaringBitmap::runOptimize);
+    } finally {
+      lock.writeLock().unlock();
+    }
+    ready = true;
+    logger.info(
+        "Recipe name index loaded with {} recipes and {} trigrams", size(), postings.size());
+  }
+
+  // Until the startup load finishes callers should fall back to the database query
+  public boolean isReady() {
+    return ready;
+  }
+
+  public void put(Integer id, String name) {
+    if (id == null) {
+      return;
+    }
+    lock.writeLock().lock();
+    try {
+      unindex(id);
+      index(id, name);
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  public void remove(Integer id) {
+    if (id == null) {
+      return;
+    }
+    lock.writeLock().lock();
+    try {
+      unindex(id);
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  // Ids of every recipe whose name contains the text (ignoring case), in ascending order
+  public List<Integer> search(String text) {
+    return search(text, Integer.MAX_VALUE);
+  }
+
+  // Same, but stops after the first `limit` ids - a common word can match most of the table
+  public List<Integer> search(String text, int limit) {
+    String needle = normalize(text);
+    List<Integer> result = new ArrayList<>();
+
+    lock.readLock().lock();
+    try {
+      RoaringBitmap candidates;
+      if (needle.length() < GRAM_SIZE) {
+        // Too short to form a trigram - check every name, still in memory
+        candidates = ids;
+      } else {
+        // Start from the smallest posting bitmap to keep the intersection cheap
+        List<RoaringBitmap> bitmaps = new ArrayList<>();
+        for (String gram : grams(needle)) {
+          RoaringBitmap gramIds = postings.get(gram);
+          if (gramIds == null) {
+            return result; // a trigram nobody has means nothing can match
+          }
+          bitmaps.add(gramIds);
+        }
+        bitmaps.sort((a, b) -> Integer.compare(a.getCardinality(), b.getCardinality()));
+        candidates = bitmaps.get(0).clone();
+        for (int i = 1; i < bitmaps.size() && !candidates.isEmpty(); i++) {
+          candidates.and(bitmaps.get(i));
+        }
+      }
+
+      // bitmaps iterate in ascending id order
+      PeekableIntIterator iterator = candidates.getIntIterator();
+      while (iterator.hasNext() && result.size() < limit) {
+        int id = iterator.next();
+        // trigrams only say "maybe" - the contains() check makes the result exact
+        if (names.get(id).contains(needle)) {
+          result.add(id);
+        }
+      }
+    } finally {
+      lock.readLock().unlock();
+    }
+    return result;
+  }
+
+  // Snapshot of every indexed id
+  public RoaringBitmap ids() {
+    lock.readLock().lock();
+    try {
+      return ids.clone();
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  public int size() {
+    lock.readLock().lock();
+    try {
+      return names.size();
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  // Caller must hold the write lock
+  private void index(Integer id, String name) {
+    if (name == null) {
+      return;
+    }
+    String normalized = normalize(name);
+    names.put(id, normalized);
+    ids.add(id);
+    for (String gram : grams(normalized)) {
+      postings.computeIfAbsent(gram, key -> new RoaringBitmap()).add(id);
+    }
+  }
+
+  // Caller must hold the write lock
+  private void unindex(Integer id) {
+    String previous = names.remove(id);
+    if (previous == null) {
+      return;
+    }
+    ids.remove(id);
+    for (String gram : grams(previous)) {
+      RoaringBitmap gramIds = postings.get(gram);
+      if (gramIds != null) {
+        gramIds.remove(id);
+        if (gramIds.isEmpty()) {
+          postings.remove(gram);
+        }
+      }
+    }
+  }
+
+  private static String normalize(String text) {
+    return text.toLowerCase(Locale.ROOT);
+  }
+
+  private static Set<String> grams(String text) {
+    Set<String> grams = new HashSet<>();
+    for (int i = 0; i + GRAM_SIZE <= text.length(); i++) {
+      grams.add(text.substring(i, i + GRAM_SIZE));
+    }
+    return grams;
+  }
+}
@@ -1,32 +1,49 @@
 package com.learning.recipeapi.security;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
 
+import com.learning.recipeapi.diagnostics.DiagnosticCategory;
+import com.learning.recipeapi.diagnostics.Diagnostics;
 import com.learning.recipeapi.entity.User;
-import com.learning.recipeapi.repository.UserRepository;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
-import java.util.ArrayList;
-
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
+  private static final Logger logger = LoggerFactory.getLogger(JwtAuthenticationFilter.class);
+
   private final JwtUtil jwtUtil;
-  private final UserRepository userRepository;
+  private final UserPrincipalCache userPrincipalCache;
+  private final Diagnostics diagnostics;
+  private final Set<String> adminUsernames;
 
   @Autowired
-  public JwtAuthenticationFilter(JwtUtil jwtUtil, UserRepository userRepository) {
+  public JwtAuthenticationFilter(
+      JwtUtil jwtUtil,
+      UserPrincipalCache userPrincipalCache,
+      Diagnostics diagnostics,
+      @Value("${security.admin-usernames:}") Set<String> adminUsernames) {
     this.jwtUtil = jwtUtil;
-    this.userRepository = userRepository;
+    this.userPrincipalCache = userPrincipalCache;
+    this.diagnostics = diagnostics;
+    this.adminUsernames = adminUsernames;
   }
 
   @Override
@@ -34,72 +51,72 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
       HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
       throws ServletException, IOException {
 
-    System.out.println("=== JWT FILTER DEBUG ===");
-    System.out.println("Request URI: " + request.getRequestURI());
+    // Debug output goes through Diagnostics (sampled, written off the request thread).
+    // The token itself is never logged
 
     // 1. Get Authorization header
     String authHeader = request.getHeader("Authorization");
-    System.out.println("Auth Header: " + authHeader);
 
     // 2. Check if header exists and starts with "Bearer "
     if (authHeader == null || !authHeader.startsWith("Bearer ")) {
-      System.out.println("No valid Bearer token found - skipping filter");
+      diagnostics.record(
+          DiagnosticCategory.AUTH,
+          "No bearer token for {} - skipping JWT filter",
+          request.getRequestURI());
       filterChain.doFilter(request, response);
       return;
     }
 
     // 3. Extract token (remove "Bearer " prefix)
     String token = authHeader.substring(7);
-    System.out.println(
-        "Token extracted (first 20 chars): "
-            + token.substring(0, Math.min(20, token.length()))
-            + "...");
 
     try {
-      // 4. Extract username from token
-      String username = jwtUtil.extractUsername(token);
-      System.out.println("Username extracted: " + username);
+      // 4. Verify the token once (signature + expiry) and get the username from it
+      String username = jwtUtil.validateAndExtractUsername(token);
 
       // 5. If token is valid and user not already authenticated
-      if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-        System.out.println("Validating token...");
-        if (jwtUtil.validateToken(token, username)) {
-          System.out.println("Token valid! Loading user...");
-
-          // Load the actual User entity
+      if (SecurityContextHolder.getContext().getAuthentication() == null) {
+        if (username != null) {
+          // Load the actual User entity (cached - see UserPrincipalCache)
           User user =
-              userRepository
+              userPrincipalCache
                   .findByUsername(username)
                   .orElseThrow(() -> new RuntimeException("User not found: " + username));
 
-          System.out.println("User loaded: " + user.getUsername());
+          // Operators listed in security.admin-usernames also get ROLE_ADMIN, which the actuator
+          // endpoints require (see SecurityConfig)
+          List<GrantedAuthority> authorities = new ArrayList<>(user.getAuthorities());
+          if (adminUsernames.contains(username)) {
+            authorities.add(new SimpleGrantedAuthority("ROLE_ADMIN"));
+          }
 
           // Set the User object as the principal (not just the username string!)
           UsernamePasswordAuthenticationToken authToken =
-              new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities());
-          //
+              new UsernamePasswordAuthenticationToken(user, null, authorities);
 
           authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
           SecurityContextHolder.getContext().setAuthentication(authToken);
 
-          System.out.println("Authentication set successfully!");
-          System.out.println("Authorities: " + authToken.getAuthorities());
-          System.out.println("Principal type: " + authToken.getPrincipal().getClass().getName());
+          diagnostics.record(
+              DiagnosticCategory.AUTH,
+              "Authenticated {} for {}",
+              username,
+              request.getRequestURI());
         } else {
-          System.out.println("Token validation FAILED!");
+          diagnostics.record(
+              DiagnosticCategory.AUTH, "Token validation failed for {}", request.getRequestURI());
         }
       }
     } catch (Exception e) {
-      System.out.println("ERROR in JWT filter: " + e.getMessage());
-      e.printStackTrace();
+      logger.warn("JWT authentication failed for {}: {}", request.getRequestURI(), e.getMessage());
     }
 
-    System.out.println("=== END JWT FILTER DEBUG ===");
-
-    // 7. Continue filter chain
+    // 6. Continue filter chain
     filterChain.doFilter(request, response);
 
-    System.out.println("=== RETURNED FROM FILTER CHAIN ===");
-    System.out.println("Response status: " + response.getStatus());
+    if (diagnostics.isEnabled(DiagnosticCategory.REQUEST)) {
+      diagnostics.record(
+          DiagnosticCategory.REQUEST, "{} -> {}", request.getRequestURI(), response.getStatus());
+    }
   }
 }
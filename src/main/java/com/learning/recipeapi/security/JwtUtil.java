@@ -1,11 +1,24 @@
 package com.learning.recipeapi.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
+
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
 import java.util.Date;
+import java.util.concurrent.TimeUnit;
 
 @Component
 public class JwtUtil {
@@ -15,40 +28,99 @@ public class JwtUtil {
   @Value("${jwt.expiration}")
   private long EXPIRATION_TIME;
 
+  @Value("${jwt.cache.max-size:10000}")
+  private long cacheMaxSize;
+
+  // Built once - creating the key and parser on every call was a large part of auth CPU
+  private SecretKey signingKey;
+  private JwtParser parser;
+
+  // Tokens that already passed signature verification, keyed by a SHA-256 digest of the token
+  // (so raw bearer tokens are not kept in memory). Each entry expires when its token does
+  private Cache<String, VerifiedToken> verifiedTokens;
+
+  private record VerifiedToken(String username, long expiresAtMillis) {}
+
+  @PostConstruct
+  void init() {
+    signingKey = Keys.hmacShaKeyFor(SECRET_KEY.getBytes(StandardCharsets.UTF_8));
+    parser = Jwts.parser().verifyWith(signingKey).build();
+    verifiedTokens =
+        Caffeine.newBuilder()
+            .maximumSize(cacheMaxSize)
+            .expireAfter(
+                new Expiry<String, VerifiedToken>() {
+                  @Override
+                  public long expireAfterCreate(String key, VerifiedToken value, long currentTime) {
+                    long remainingMillis = value.expiresAtMillis() - System.currentTimeMillis();
+                    return TimeUnit.MILLISECONDS.toNanos(Math.max(remainingMillis, 0));
+                  }
+
+                  @Override
+                  public long expireAfterUpdate(
+                      String key, VerifiedToken value, long currentTime, long currentDuration) {
+                    return expireAfterCreate(key, value, currentTime);
+                  }
+
+                  @Override
+                  public long expireAfterRead(
+                      String key, VerifiedToken value, long currentTime, long currentDuration) {
+                    return currentDuration;
+                  }
+                })
+            .build();
+  }
+
   public String generateToken(String username) {
     Date issuedAt = new Date();
-    Date expiresAt = new Date(System.currentTimeMillis() + EXPIRATION_TIME);
+    Date expiresAt = new Date(issuedAt.getTime() + EXPIRATION_TIME);
 
     return Jwts.builder()
-        .setSubject(username)
-        .setIssuedAt(new Date())
-        .setExpiration(new Date(System.currentTimeMillis() + EXPIRATION_TIME))
-        .signWith(Keys.hmacShaKeyFor(SECRET_KEY.getBytes()), SignatureAlgorithm.HS256)
+        .subject(username)
+        .issuedAt(issuedAt)
+        .expiration(expiresAt)
+        .signWith(signingKey, Jwts.SIG.HS256)
         .compact();
   }
 
+  // Verifies the token once and returns its username, or null if it is invalid or expired.
+  // A token seen before is answered from the cache until it expires
+  public String validateAndExtractUsername(String token) {
+    String key = digest(token);
+    VerifiedToken cached = verifiedTokens.getIfPresent(key);
+    if (cached != null) {
+      return cached.expiresAtMillis() > System.currentTimeMillis() ? cached.username() : null;
+    }
+
+    Claims claims;
+    try {
+      claims = parser.parseSignedClaims(token).getPayload();
+    } catch (JwtException | IllegalArgumentException e) {
+      return null; // bad signature, malformed or already expired
+    }
+    Date expiration = claims.getExpiration();
+    if (claims.getSubject() == null || expiration == null || expiration.before(new Date())) {
+      return null;
+    }
+    verifiedTokens.put(key, new VerifiedToken(claims.getSubject(), expiration.getTime()));
+    return claims.getSubject();
+  }
+
   public String extractUsername(String token) {
-    return Jwts.parser()
-        .setSigningKey(SECRET_KEY.getBytes())
-        .build()
-        .parseClaimsJws(token)
-        .getBody()
-        .getSubject();
+    return parser.parseSignedClaims(token).getPayload().getSubject();
   }
 
   public boolean validateToken(String token, String username) {
-    final String extractedUsername = extractUsername(token);
-    return (username.equals(extractedUsername) && !isTokenExpired(token));
+    return username.equals(validateAndExtractUsername(token));
   }
 
-  private boolean isTokenExpired(String token) {
-    Date expiration =
-        Jwts.parser()
-            .setSigningKey(SECRET_KEY.getBytes())
-            .build()
-            .parseClaimsJws(token)
-            .getBody()
-            .getExpiration();
-    return expiration.before(new Date());
+  private static String digest(String token) {
+    try {
+      MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+      return Base64.getEncoder()
+          .encodeToString(sha256.digest(token.getBytes(StandardCharsets.UTF_8)));
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 not available", e); // required on every JVM
+    }
   }
 }
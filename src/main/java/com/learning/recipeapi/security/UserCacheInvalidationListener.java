@@ -0,0 +1,25 @@
+package com.learning.recipeapi.security;
+
+import com.learning.recipeapi.entity.User;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+// JPA entity listener on User - keeps UserPrincipalCache from serving stale users.
+// Hibernate gets this from Spring, so the cache can be injected. ObjectProvider is used because
+// slice tests (@DataJpaTest) load entities without the security beans
+@Component
+public class UserCacheInvalidationListener {
+  private final ObjectProvider<UserPrincipalCache> principalCache;
+
+  public UserCacheInvalidationListener(ObjectProvider<UserPrincipalCache> principalCache) {
+    this.principalCache = principalCache;
+  }
+
+  @PostUpdate
+  @PostRemove
+  public void evict(User user) {
+    principalCache.ifAvailable(cache -> cache.invalidate(user));
+  }
+}
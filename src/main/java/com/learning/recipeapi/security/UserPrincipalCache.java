@@ -0,0 +1,66 @@
+package com.learning.recipeapi.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.learning.recipeapi.entity.User;
+import com.learning.recipeapi.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+
+// Caches the User loaded by JwtAuthenticationFilter so authenticated requests don't each need a
+// findByUsername round trip. Entries live for a short TTL and are evicted straight away when the
+// user row is updated or deleted (see UserCacheInvalidationListener)
+@Component
+public class UserPrincipalCache {
+  private final UserRepository userRepository;
+  private final Cache<String, User> users;
+
+  @Autowired
+  public UserPrincipalCache(
+      UserRepository userRepository,
+      MeterRegistry meterRegistry,
+      @Value("${security.principal-cache.max-size:10000}") long maxSize,
+      @Value("${security.principal-cache.ttl:5m}") Duration ttl) {
+    this.userRepository = userRepository;
+    this.users =
+        Caffeine.newBuilder().maximumSize(maxSize).expireAfterWrite(ttl).recordStats().build();
+    // hit/miss/eviction counters show up under /actuator/metrics/cache.*{cache=principals}
+    CaffeineCacheMetrics.monitor(meterRegistry, users, "principals");
+  }
+
+  public Optional<User> findByUsername(String username) {
+    User user = users.getIfPresent(username);
+    if (user != null) {
+      return Optional.of(user);
+    }
+    // Only successful lookups are cached - unknown usernames always go to the database
+    Optional<User> loaded = userRepository.findByUsername(username);
+    loaded.ifPresent(found -> users.put(username, found));
+    return loaded;
+  }
+
+  public void invalidate(User user) {
+    if (user.getUsername() != null) {
+      users.invalidate(user.getUsername());
+    }
+    // the username itself may have changed - also drop anything cached under the same id
+    if (user.getId() != null) {
+      users.asMap().values().removeIf(cached -> user.getId().equals(cached.getId()));
+    }
+  }
+
+  public void invalidateAll() {
+    users.invalidateAll();
+  }
+
+  public CacheStats stats() {
+    return users.stats();
+  }
+}
@@ -0,0 +1,137 @@
+package com.learning.recipeapi.service;
+
+import com.learning.recipeapi.exception.ApiException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+// Runs the RecipeService *Async methods (the /async/** endpoints) on their own bounded executor
+// instead of ForkJoinPool.commonPool(), carrying the security context and MDC across.
+// - full queue (or concurrency limit with virtual threads) -> ASYNC_QUEUE_FULL, 503
+// - not finished within recipe.async.timeout -> TimeoutException, 504 (GlobalExceptionHandler),
+//   and the task is interrupted so it stops holding a thread (and a DB connection) for nobody
+// Not registered as an Executor bean on purpose - that would replace Spring Boot's default
+// applicationTaskExecutor used by the rest of MVC
+@Component
+public class AsyncRecipeExecutor implements DisposableBean {
+  static final String NAME = "recipe-async";
+
+  private final AsyncTaskExecutor executor;
+  private final Duration timeout;
+  private final Timer taskTimer;
+  private final Counter rejected;
+  private final Counter timedOut;
+
+  @Autowired
+  public AsyncRecipeExecutor(
+      MeterRegistry meterRegistry,
+      @Value("${recipe.async.virtual-threads:false}") boolean virtualThreads,
+      @Value("${recipe.async.pool-size:8}") int poolSize,
+      @Value("${recipe.async.max-pool-size:32}") int maxPoolSize,
+      @Value("${recipe.async.queue-capacity:200}") int queueCapacity,
+      @Value("${recipe.async.timeout:10s}") Duration timeout) {
+    this.timeout = timeout;
+
+    if (virtualThreads) {
+      // one virtual thread per task, so the limit is on concurrent tasks rather than a queue
+      SimpleAsyncTaskExecutor virtual = new SimpleAsyncTaskExecutor(NAME + "-");
+      try {
+        virtual.setVirtualThreads(true);
+      } catch (UnsupportedOperationException e) {
+        throw new IllegalStateException(
+            "recipe.async.virtual-threads=true needs Java 21 or newer (build with -Pjava21)", e);
+      }
+      virtual.setConcurrencyLimit(maxPoolSize + queueCapacity);
+      virtual.setRejectTasksWhenLimitReached(true);
+      virtual.setTaskDecorator(new RequestContextTaskDecorator());
+      virtual.setTaskTerminationTimeout(timeout.toMillis());
+      this.executor = virtual;
+    } else {
+      ThreadPoolTaskExecutor pool = new ThreadPoolTaskExecutor();
+      pool.setThreadNamePrefix(NAME + "-");
+      pool.setCorePoolSize(poolSize);
+      pool.setMaxPoolSize(maxPoolSize);
+      pool.setQueueCapacity(queueCapacity);
+      pool.setTaskDecorator(new RequestContextTaskDecorator());
+      pool.setWaitForTasksToCompleteOnShutdown(true);
+      pool.setAwaitTerminationMillis(timeout.toMillis());
+      pool.initialize();
+      // executor.pool.size / .active / .queued / .completed {name=recipe-async}
+      new ExecutorServiceMetrics(pool.getThreadPoolExecutor(), NAME, Tags.empty())
+          .bindTo(meterRegistry);
+      this.executor = pool;
+    }
+
+    this.taskTimer =
+        Timer.builder("recipe.async.tasks")
+            .description("Time spent running /async tasks")
+            .register(meterRegistry);
+    this.rejected =
+        Counter.builder("recipe.async.rejected")
+            .description("/async tasks turned away because the executor was full")
+            .register(meterRegistry);
+    this.timedOut =
+        Counter.builder("recipe.async.timeouts")
+            .description("/async tasks that did not finish within recipe.async.timeout")
+            .register(meterRegistry);
+  }
+
+  public <T> CompletableFuture<T> supply(Supplier<T> task) {
+    CompletableFuture<T> future = new CompletableFuture<>();
+    Future<?> running;
+    try {
+      // submitted directly rather than through supplyAsync, which gives no handle to cancel
+      running =
+          executor.submit(
+              () -> {
+                try {
+                  future.complete(taskTimer.record(task));
+                } catch (Throwable e) {
+                  future.completeExceptionally(e);
+                }
+              });
+    } catch (RejectedExecutionException e) {
+      rejected.increment();
+      throw new ApiException(
+          "Server is busy, please try again shortly",
+          HttpStatus.SERVICE_UNAVAILABLE,
+          "ASYNC_QUEUE_FULL");
+    }
+    return future
+        .orTimeout(timeout.toMillis(), TimeUnit.MILLISECONDS)
+        .whenComplete(
+            (result, ex) -> {
+              if (ex instanceof TimeoutException) {
+                timedOut.increment();
+                running.cancel(true);
+              }
+            });
+  }
+
+  @Override
+  public void destroy() {
+    if (executor instanceof ThreadPoolTaskExecutor pool) {
+      pool.shutdown();
+    } else if (executor instanceof SimpleAsyncTaskExecutor virtual) {
+      virtual.close();
+    }
+  }
+}
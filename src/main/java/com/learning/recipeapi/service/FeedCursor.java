@@ -0,0 +1,34 @@
+package com.learning.recipeapi.service;
+
+import com.learning.recipeapi.exception.InvalidCursorException;
+import com.learning.recipeapi.repository.FeedSort;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+// Position in the recipe feed: the sort order plus the (sort key, id) of the last row returned.
+// Encoded as URL-safe base64 so clients treat it as an opaque token
+record FeedCursor(FeedSort sort, Integer lastId, String lastSortValue) {
+
+  String encode() {
+    String raw = sort.name() + ":" + lastId + ":" + (lastSortValue == null ? "" : lastSortValue);
+    return Base64.getUrlEncoder()
+        .withoutPadding()
+        .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+  }
+
+  static FeedCursor decode(String token) {
+    try {
+      String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+      // limit 3 - the sort value (a recipe name) may itself contain ':'
+      String[] parts = raw.split(":", 3);
+      if (parts.length != 3) {
+        throw new InvalidCursorException();
+      }
+      return new FeedCursor(FeedSort.valueOf(parts[0]), Integer.valueOf(parts[1]), parts[2]);
+    } catch (IllegalArgumentException e) {
+      // also covers bad base64, unknown sort names and NumberFormatException
+      throw new InvalidCursorException();
+    }
+  }
+}
@@ -0,0 +1,191 @@
+package com.learning.recipeapi.service;
+
+import com.learning.recipeapi.dto.IngredientNameEntry;
+import com.learning.recipeapi.entity.Ingredient;
+import com.learning.recipeapi.repository.IngredientRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+// One Ingredient row per normalized name. RecipeService asks for the ids of a recipe's
+// ingredient names; known names come from the in-memory map, new ones are inserted in one
+// batch and added to it. Recipes then link to the shared rows instead of inserting a fresh
+// "salt" every time
+@Component
+public class IngredientDictionary {
+  private static final Logger logger = LoggerFactory.getLogger(IngredientDictionary.class);
+
+  private final IngredientRepository ingredientRepository;
+  private final JdbcTemplate jdbcTemplate;
+  private final EntityManagerFactory entityManagerFactory;
+  private final TransactionTemplate newTransaction;
+
+  // normalized name -> ingredient id
+  private final Map<String, Integer> ids = new ConcurrentHashMap<>();
+
+  @Autowired
+  public IngredientDictionary(
+      IngredientRepository ingredientRepository,
+      JdbcTemplate jdbcTemplate,
+      EntityManagerFactory entityManagerFactory,
+      PlatformTransactionManager transactionManager) {
+    this.ingredientRepository = ingredientRepository;
+    this.jdbcTemplate = jdbcTemplate;
+    this.entityManagerFactory = entityManagerFactory;
+    // new names are committed on their own, even if the recipe save that needed them fails
+    this.newTransaction = new TransactionTemplate(transactionManager);
+    this.newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void load() {
+    int claimed = claimLegacyRows();
+    for (IngredientNameEntry entry : ingredientRepository.findAllNameEntries()) {
+      ids.put(entry.normalizedName(), entry.id());
+    }
+    logger.info(
+        "Ingredient dictionary loaded with {} names ({} older rows given a normalized name)",
+        ids.size(),
+        claimed);
+  }
+
+  // "  Olive   Oil " -> "olive oil"
+  public static String normalize(String name) {
+    if (name == null) {
+      return "";
+    }
+    return name.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+  }
+
+  // Returns normalized name -> id for every non-blank name, creating rows for names not seen before
+  public Map<String, Integer> resolve(Collection<String> names) {
+    // normalized -> name as first written, used as the display name of new rows
+    Map<String, String> wanted = new LinkedHashMap<>();
+    for (String name : names) {
+      String normalized = normalize(name);
+      if (!normalized.isEmpty()) {
+        wanted.putIfAbsent(normalized, name.trim().replaceAll("\\s+", " "));
+      }
+    }
+
+    Map<String, String> missing = new LinkedHashMap<>();
+    for (Map.Entry<String, String> entry : wanted.entrySet()) {
+      if (!ids.containsKey(entry.getKey())) {
+        missing.put(entry.getKey(), entry.getValue());
+      }
+    }
+    if (!missing.isEmpty()) {
+      // another instance (or a request before load() finished) may already have added them
+      rememberExisting(missing);
+      if (!missing.isEmpty()) {
+        insert(missing);
+      }
+    }
+
+    Map<String, Integer> result = new HashMap<>();
+    for (String normalized : wanted.keySet()) {
+      Integer id = ids.get(normalized);
+      if (id != null) {
+        result.put(normalized, id);
+      }
+    }
+    return result;
+  }
+
+  public int size() {
+    return ids.size();
+  }
+
+  private void rememberExisting(Map<String, String> missing) {
+    for (Ingredient ingredient : ingredientRepository.findByNormalizedNameIn(missing.keySet())) {
+      ids.put(ingredient.getNormalizedName(), ingredient.getId());
+      missing.remove(ingredient.getNormalizedName());
+    }
+  }
+
+  // One saveAll for all new names - sequence ids, so Hibernate sends them as a JDBC batch
+  private void insert(Map<String, String> missing) {
+    List<Ingredient> created = new ArrayList<>();
+    for (Map.Entry<String, String> entry : missing.entrySet()) {
+      Ingredient ingredient = new Ingredient(entry.getValue());
+      ingredient.setNormalizedName(entry.getKey());
+      created.add(ingredient);
+    }
+    try {
+      List<Ingredient> saved =
+          newTransaction.execute(status -> ingredientRepository.saveAll(created));
+      for (Ingredient ingredient : saved) {
+        ids.put(ingredient.getNormalizedName(), ingredient.getId());
+      }
+    } catch (DataIntegrityViolationException e) {
+      // Lost a race on the unique constraint - take whichever rows now exist and insert the
+      // rest one at a time so a single clash doesn't fail the others
+      rememberExisting(missing);
+      for (Map.Entry<String, String> entry : missing.entrySet()) {
+        insertOne(entry.getKey(), entry.getValue());
+      }
+    }
+  }
+
+  private void insertOne(String normalized, String name) {
+    Ingredient ingredient = new Ingredient(name);
+    ingredient.setNormalizedName(normalized);
+    try {
+      Ingredient saved = newTransaction.execute(status -> ingredientRepository.save(ingredient));
+      ids.put(normalized, saved.getId());
+    } catch (DataIntegrityViolationException e) {
+      ingredientRepository
+          .findByNormalizedNameIn(List.of(normalized))
+          .forEach(existing -> ids.put(normalized, existing.getId()));
+    }
+  }
+
+  // Rows saved before the dictionary existed have no normalized name. The first row for each
+  // name becomes the canonical one; later duplicates are left as they are (still linked to
+  // their old recipes, just never reused)
+  private int claimLegacyRows() {
+    List<Map<String, Object>> rows =
+        jdbcTemplate.queryForList(
+            "SELECT id, name FROM ingredient WHERE normalized_name IS NULL ORDER BY id");
+    if (rows.isEmpty()) {
+      return 0;
+    }
+    Set<String> taken = new HashSet<>();
+    for (IngredientNameEntry entry : ingredientRepository.findAllNameEntries()) {
+      taken.add(entry.normalizedName());
+    }
+    List<Object[]> updates = new ArrayList<>();
+    for (Map<String, Object> row : rows) {
+      String normalized = normalize((String) row.get("name"));
+      if (!normalized.isEmpty() && taken.add(normalized)) {
+        updates.add(new Object[] {normalized, row.get("id")});
+      }
+    }
+    if (!updates.isEmpty()) {
+      jdbcTemplate.batchUpdate("UPDATE ingredient SET normalized_name = ? WHERE id = ?", updates);
+      // JDBC goes around Hibernate, so cached ingredients would still have no normalized name
+      entityManagerFactory.getCache().evict(Ingredient.class);
+    }
+    return updates.size();
+  }
+}
@@ -0,0 +1,78 @@
+package com.learning.recipeapi.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.learning.recipeapi.dto.RecipeExportRow;
+import com.learning.recipeapi.repository.RecipeRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+// Writes every recipe a user can see as newline-delimited JSON, one object per line.
+// Rows come off a database cursor fetchSize at a time and are written straight out, so memory
+// use doesn't grow with the number of recipes
+@Service
+public class RecipeExportService {
+  private static final Logger logger = LoggerFactory.getLogger(RecipeExportService.class);
+
+  private final RecipeRepository recipeRepository;
+  private final TransactionTemplate readOnlyTransaction;
+  private final ObjectWriter rowWriter;
+
+  @Value("${recipe.export.fetch-size:500}")
+  private int fetchSize = 500;
+
+  @Autowired
+  public RecipeExportService(
+      RecipeRepository recipeRepository,
+      PlatformTransactionManager transactionManager,
+      ObjectMapper objectMapper) {
+    this.recipeRepository = recipeRepository;
+    this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+    this.readOnlyTransaction.setReadOnly(true);
+    // flushing is done every fetchSize rows below rather than after every line
+    this.rowWriter = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+  }
+
+  // Returns the number of rows written. The caller owns (and closes) the output stream
+  public long exportRecipes(Integer userId, OutputStream out) {
+    Long written =
+        readOnlyTransaction.execute(
+            status -> {
+              try (Stream<RecipeExportRow> rows =
+                      recipeRepository.streamExportRows(userId, fetchSize);
+                  JsonGenerator generator = rowWriter.createGenerator(out)) {
+                generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                // Jackson puts a space between root values by default - lines end in \n instead
+                generator.setRootValueSeparator(null);
+                long count = 0;
+                Iterator<RecipeExportRow> iterator = rows.iterator();
+                while (iterator.hasNext()) {
+                  rowWriter.writeValue(generator, iterator.next());
+                  generator.writeRaw('\n');
+                  if (++count % fetchSize == 0) {
+                    generator.flush();
+                  }
+                }
+                return count;
+              } catch (IOException e) {
+                // usually the client went away mid-download
+                throw new UncheckedIOException(e);
+              }
+            });
+    logger.info("Exported {} recipes for user {}", written, userId);
+    return written != null ? written : 0;
+  }
+}
@@ -0,0 +1,114 @@
+package com.learning.recipeapi.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.learning.recipeapi.entity.Recipe;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Objects;
+import java.util.zip.GZIPOutputStream;
+
+// The JSON for GET /recipes/{id}, serialized once per recipe version and kept as bytes (plus a
+// gzipped copy for larger recipes) so hot recipes skip Jackson and compression on every request.
+// Entries are checked against the recipe's @Version, so a copy from before an update is never
+// served even if it raced with the eviction. The cache is limited by total bytes, not entries
+@Component
+public class RecipeRenderCache {
+
+  // json and gzip are null when the client's copy was current and nothing was rendered
+  public record RenderedRecipe(
+      Integer id, Long version, Instant updatedAt, byte[] json, byte[] gzip) {
+
+    public static RenderedRecipe notRendered(Recipe recipe) {
+      return new RenderedRecipe(
+          recipe.getId(), recipe.getVersion(), recipe.getUpdatedAt(), null, null);
+    }
+  }
+
+  // rough per-entry cost on top of the byte arrays (entry, record, array headers)
+  private static final int ENTRY_OVERHEAD = 128;
+
+  private final ObjectMapper objectMapper;
+  private final Cache<Integer, RenderedRecipe> rendered;
+  private final boolean gzipEnabled;
+  private final int gzipMinSize;
+
+  @Autowired
+  public RecipeRenderCache(
+      ObjectMapper objectMapper,
+      MeterRegistry meterRegistry,
+      @Value("${recipe.render-cache.max-size:32MB}") DataSize maxSize,
+      @Value("${recipe.render-cache.ttl:1h}") Duration ttl,
+      @Value("${recipe.render-cache.gzip:true}") boolean gzipEnabled,
+      @Value("${recipe.render-cache.gzip-min-size:1KB}") DataSize gzipMinSize) {
+    this.objectMapper = objectMapper;
+    this.gzipEnabled = gzipEnabled;
+    this.gzipMinSize = (int) gzipMinSize.toBytes();
+    // the TTL also bounds how long a change that doesn't bump the version (e.g. a renamed user)
+    // can stay visible
+    this.rendered =
+        Caffeine.newBuilder()
+            .maximumWeight(maxSize.toBytes())
+            .weigher((Integer id, RenderedRecipe entry) -> weigh(entry))
+            .expireAfterWrite(ttl)
+            .recordStats()
+            .build();
+    CaffeineCacheMetrics.monitor(meterRegistry, rendered, "recipe.render");
+  }
+
+  // Must be called while the recipe's lazy ingredients can still be loaded
+  public RenderedRecipe render(Recipe recipe) {
+    RenderedRecipe cached = rendered.getIfPresent(recipe.getId());
+    if (cached != null && Objects.equals(cached.version(), recipe.getVersion())) {
+      return cached;
+    }
+    RenderedRecipe fresh = serialize(recipe);
+    rendered.put(recipe.getId(), fresh);
+    return fresh;
+  }
+
+  public void evict(Integer id) {
+    rendered.invalidate(id);
+  }
+
+  private RenderedRecipe serialize(Recipe recipe) {
+    byte[] json;
+    try {
+      json = objectMapper.writeValueAsBytes(recipe);
+    } catch (JsonProcessingException e) {
+      throw new IllegalStateException("Could not serialize recipe " + recipe.getId(), e);
+    }
+    // small bodies aren't worth the gzip header and the extra memory
+    byte[] gzip = gzipEnabled && json.length >= gzipMinSize ? gzip(json) : null;
+    return new RenderedRecipe(
+        recipe.getId(), recipe.getVersion(), recipe.getUpdatedAt(), json, gzip);
+  }
+
+  private static byte[] gzip(byte[] json) {
+    ByteArrayOutputStream out = new ByteArrayOutputStream(json.length / 2);
+    try (GZIPOutputStream gzipOut = new GZIPOutputStream(out)) {
+      gzipOut.write(json);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    return out.toByteArray();
+  }
+
+  private static int weigh(RenderedRecipe entry) {
+    return ENTRY_OVERHEAD
+        + entry.json().length
+        + (entry.gzip() != null ? entry.gzip().length : 0);
+  }
+}
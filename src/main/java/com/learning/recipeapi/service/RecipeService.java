@@ -2,44 +2,119 @@ package com.learning.recipeapi.service;
 
 import com.learning.recipeapi.*;
 import com.learning.recipeapi.dto.*;
+import com.learning.recipeapi.entity.Ingredient;
 import com.learning.recipeapi.entity.Recipe;
 import com.learning.recipeapi.entity.User;
+import com.learning.recipeapi.exception.ApiException;
 import com.learning.recipeapi.exception.DuplicateRecipeException;
 import com.learning.recipeapi.exception.InvalidPrepTimeException;
 import com.learning.recipeapi.exception.RecipeNotFoundException;
+import com.learning.recipeapi.repository.FeedSort;
 import com.learning.recipeapi.repository.IngredientRepository;
 import com.learning.recipeapi.repository.RecipeRepository;
+import com.learning.recipeapi.repository.RecipeRepositoryCustom;
 import com.learning.recipeapi.repository.UserRepository;
+import com.learning.recipeapi.search.DuplicateIndex;
+import com.learning.recipeapi.search.FullTextSearchSupport;
+import com.learning.recipeapi.search.IngredientIndex;
+import com.learning.recipeapi.search.MatchMode;
+import com.learning.recipeapi.search.RecipeNameIndex;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpStatus;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiPredicate;
+import java.util.function.Function;
 
 @Service
 public class RecipeService {
   private final RecipeRepository recipeRepository;
   private static final Logger logger = LoggerFactory.getLogger(RecipeService.class);
+
+  // ids per IN (...) when loading index matches, well under PostgreSQL's bind parameter limit
+  private static final int ID_LOOKUP_CHUNK = 500;
+
   private final UserRepository userRepository;
   private final IngredientRepository ingredientRepository;
   private final SpoonacularService spoonacularService;
+  private final RecipeNameIndex recipeNameIndex;
+  private final IngredientIndex ingredientIndex;
+  private final FullTextSearchSupport fullTextSearchSupport;
+  private final TransactionTemplate transactionTemplate;
+  private final TransactionTemplate readTransactionTemplate;
+  private final AsyncRecipeExecutor asyncExecutor;
+  private final Validator validator;
+  private final IngredientDictionary ingredientDictionary;
+  private final DuplicateIndex duplicateIndex;
+  private final RecipeRenderCache renderCache;
+
+  @Value("${spoonacular.bulk.chunk-size:50}")
+  private int bulkChunkSize = 50;
+
+  // recipes per transaction in createRecipes - hibernate.jdbc.batch_size sets the JDBC batches
+  @Value("${recipe.batch.chunk-size:500}")
+  private int batchChunkSize = 500;
+
+  // Most ids an in-memory index search passes on to the database - a short or common query can
+  // match a large part of the table
+  @Value("${recipe.search.max-results:1000}")
+  private int maxSearchResults = 1000;
 
   @Autowired
   public RecipeService(
       RecipeRepository recipeRepository,
       IngredientRepository ingredientRepository,
       UserRepository userRepository,
-      SpoonacularService spoonacularService) {
+      SpoonacularService spoonacularService,
+      RecipeNameIndex recipeNameIndex,
+      IngredientIndex ingredientIndex,
+      FullTextSearchSupport fullTextSearchSupport,
+      PlatformTransactionManager transactionManager,
+      AsyncRecipeExecutor asyncExecutor,
+      Validator validator,
+      IngredientDictionary ingredientDictionary,
+      DuplicateIndex duplicateIndex,
+      RecipeRenderCache renderCache) {
     this.recipeRepository = recipeRepository;
     this.userRepository = userRepository;
     this.ingredientRepository = ingredientRepository;
     this.spoonacularService = spoonacularService;
+    this.recipeNameIndex = recipeNameIndex;
+    this.ingredientIndex = ingredientIndex;
+    this.fullTextSearchSupport = fullTextSearchSupport;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.readTransactionTemplate = new TransactionTemplate(transactionManager);
+    this.readTransactionTemplate.setReadOnly(true);
+    this.asyncExecutor = asyncExecutor;
+    this.validator = validator;
+    this.ingredientDictionary = ingredientDictionary;
+    this.duplicateIndex = duplicateIndex;
+    this.renderCache = renderCache;
   }
 
   public Page<Recipe> getAllRecipes(Pageable pageable) {
@@ -49,12 +124,7 @@ public class RecipeService {
         pageable.getPageNumber(),
         pageable.getPageSize());
 
-    // Get authenticated user
-    String username = getAuthenticatedUsername();
-    User user =
-        userRepository
-            .findByUsername(username)
-            .orElseThrow(() -> new IllegalStateException("User not found: " + username));
+    User user = getAuthenticatedUser();
 
     Page<Recipe> recipes =
         recipeRepository.findPublicAndUserSpoonacularRecipes(user.getId(), pageable);
@@ -68,6 +138,119 @@ public class RecipeService {
     return recipes;
   }
 
+  // Same page as getAllRecipes, but only the columns a list shows (?view=summary)
+  public Page<RecipeSummary> getAllRecipeSummaries(Pageable pageable) {
+    User user = getAuthenticatedUser();
+
+    return recipeRepository.findPublicAndUserSpoonacularSummaries(user.getId(), pageable);
+  }
+
+  // Every criterion in one query (see RecipeRepositoryImpl.findFiltered) instead of one
+  // unbounded list per criterion intersected by the client
+  public Page<Recipe> filterRecipes(RecipeFilter filter, Pageable pageable) {
+    validateFilter(filter, pageable);
+    User user = getAuthenticatedUser();
+    return recipeRepository.findFiltered(user.getId(), filter, pageable);
+  }
+
+  public Page<RecipeSummary> filterRecipeSummaries(RecipeFilter filter, Pageable pageable) {
+    validateFilter(filter, pageable);
+    User user = getAuthenticatedUser();
+    return recipeRepository.findFilteredSummaries(user.getId(), filter, pageable);
+  }
+
+  private void validateFilter(RecipeFilter filter, Pageable pageable) {
+    if (filter.minPrepTime() != null
+        && filter.maxPrepTime() != null
+        && filter.minPrepTime() > filter.maxPrepTime()) {
+      throw new ApiException(
+          "minPrepTime cannot be greater than maxPrepTime",
+          HttpStatus.BAD_REQUEST,
+          "INVALID_FILTER");
+    }
+    for (Sort.Order order : pageable.getSort()) {
+      if (!RecipeRepositoryCustom.FILTER_SORT_PROPERTIES.contains(order.getProperty())) {
+        throw new ApiException(
+            "Recipes can't be sorted by " + order.getProperty(),
+            HttpStatus.BAD_REQUEST,
+            "UNSUPPORTED_SORT");
+      }
+    }
+  }
+
+  // Keyset (cursor) version of getAllRecipes - every page costs the same as the first because
+  // the query seeks past the last (sort key, id) instead of counting and skipping earlier rows
+  public CursorPage<Recipe> getRecipeFeed(String cursor, int size, Sort sort) {
+    return feedPage(
+        cursor, size, sort, recipeRepository::findFeedPage, Recipe::getId, Recipe::getName);
+  }
+
+  public CursorPage<RecipeSummary> getRecipeSummaryFeed(String cursor, int size, Sort sort) {
+    return feedPage(
+        cursor,
+        size,
+        sort,
+        recipeRepository::findFeedSummaryPage,
+        RecipeSummary::id,
+        RecipeSummary::name);
+  }
+
+  // Lets the feed run the same seek query for entities and summaries
+  private interface FeedQuery<T> {
+    List<T> find(Integer userId, FeedSort sort, String lastSortValue, Integer lastId, int limit);
+  }
+
+  private <T> CursorPage<T> feedPage(
+      String cursor,
+      int size,
+      Sort sort,
+      FeedQuery<T> feedQuery,
+      Function<T, Integer> idOf,
+      Function<T, String> nameOf) {
+    User user = getAuthenticatedUser();
+
+    // An existing cursor carries its own sort order so pages stay consistent
+    FeedCursor position = cursor == null || cursor.isBlank() ? null : FeedCursor.decode(cursor);
+    FeedSort feedSort = position != null ? position.sort() : toFeedSort(sort);
+
+    // Ask for one extra row to find out whether there is a next page without a count query
+    List<T> rows =
+        feedQuery.find(
+            user.getId(),
+            feedSort,
+            position != null ? position.lastSortValue() : null,
+            position != null ? position.lastId() : null,
+            size + 1);
+
+    String nextCursor = null;
+    if (rows.size() > size) {
+      rows = rows.subList(0, size);
+      T last = rows.get(size - 1);
+      String lastSortValue = feedSort.isIdOnly() ? null : nameOf.apply(last);
+      nextCursor = new FeedCursor(feedSort, idOf.apply(last), lastSortValue).encode();
+    }
+
+    logger.info("Retrieved {} recipes from feed (sort={})", rows.size(), feedSort);
+    return new CursorPage<>(rows, nextCursor, rows.size());
+  }
+
+  private FeedSort toFeedSort(Sort sort) {
+    if (sort == null || sort.isUnsorted()) {
+      return FeedSort.NEWEST;
+    }
+    Sort.Order order = sort.iterator().next();
+    if (order.getProperty().equals("name")) {
+      return order.isAscending() ? FeedSort.NAME_ASC : FeedSort.NAME_DESC;
+    }
+    if (order.getProperty().equals("id")) {
+      return order.isAscending() ? FeedSort.OLDEST : FeedSort.NEWEST;
+    }
+    throw new ApiException(
+        "Cursor pagination can only sort by id or name",
+        HttpStatus.BAD_REQUEST,
+        "UNSUPPORTED_SORT");
+  }
+
   public Recipe getRecipeById(int id) {
     logger.debug("Fetching recipe with id: {}", id);
     return recipeRepository
@@ -84,14 +267,67 @@ public class RecipeService {
             });
   }
 
+  // The detail JSON as bytes from RecipeRenderCache. isCurrent gets the recipe's version and
+  // updatedAt first; if the client's copy is current, nothing is rendered. Loading and (on a miss)
+  // serializing share one read-only transaction, so the lazy ingredients load on any thread,
+  // including /async
+  public RecipeRenderCache.RenderedRecipe getRenderedRecipe(
+      Integer id, BiPredicate<Long, Instant> isCurrent) {
+    return readTransactionTemplate.execute(
+        status -> {
+          Recipe recipe = getRecipeById(id);
+          if (isCurrent.test(recipe.getVersion(), recipe.getUpdatedAt())) {
+            return RecipeRenderCache.RenderedRecipe.notRendered(recipe);
+          }
+          return renderCache.render(recipe);
+        });
+  }
+
   public List<Recipe> getRecipesByName(String name) {
-    return recipeRepository.findByNameContainingIgnoreCase(name);
+    // Fall back to the LIKE query until the name index has finished loading
+    if (!recipeNameIndex.isReady()) {
+      return recipeRepository.findByNameContainingIgnoreCase(name);
+    }
+    List<Integer> ids = recipeNameIndex.search(name, maxSearchResults);
+    if (ids.isEmpty()) {
+      return List.of();
+    }
+    return findAllByIdOrdered(ids);
   }
 
   public List<Recipe> getRecipeByIngredient(String ingredient) {
     return recipeRepository.findByIngredientsTextContainingIgnoreCase(ingredient);
   }
 
+  // "What can I cook with X and Y" - answered from the ingredient bitmap index
+  public List<Recipe> getRecipesByIngredients(List<String> ingredients, MatchMode mode) {
+    requireIngredientIndex();
+    List<Integer> ids = ingredientIndex.search(ingredients, mode, maxSearchResults);
+    logger.debug(
+        "Ingredient search {} (mode={}) matched {} recipes", ingredients, mode, ids.size());
+    if (ids.isEmpty()) {
+      return List.of();
+    }
+    return findAllByIdOrdered(ids);
+  }
+
+  // Free-text search across name, description, ingredients and instructions, best match first
+  public List<Recipe> searchRecipesFullText(String query, int limit) {
+    if (fullTextSearchSupport.isAvailable()) {
+      return recipeRepository.fullTextSearch(query, limit);
+    }
+
+    // No tsvector support (e.g. H2) - name matches first, then ingredient matches
+    Map<Integer, Recipe> results = new LinkedHashMap<>();
+    for (Recipe recipe : recipeRepository.findByNameContainingIgnoreCase(query)) {
+      results.put(recipe.getId(), recipe);
+    }
+    for (Recipe recipe : recipeRepository.findByIngredientsTextContainingIgnoreCase(query)) {
+      results.putIfAbsent(recipe.getId(), recipe);
+    }
+    return results.values().stream().limit(limit).toList();
+  }
+
   public List<Recipe> getRecipeByCategory(Category category) {
     return recipeRepository.findByCategory(category);
   }
@@ -108,6 +344,64 @@ public class RecipeService {
     return recipeRepository.findByPrepTimeMinutesBetween(min, max);
   }
 
+  // Summary versions of the list lookups above. The index-backed searches still find ids in
+  // memory, they just load summary rows for them instead of whole recipes
+  public List<RecipeSummary> getRecipeSummariesByName(String name) {
+    if (!recipeNameIndex.isReady()) {
+      return recipeRepository.findSummariesByNameContainingIgnoreCase(name);
+    }
+    List<Integer> ids = recipeNameIndex.search(name, maxSearchResults);
+    if (ids.isEmpty()) {
+      return List.of();
+    }
+    return findSummariesByIdOrdered(ids);
+  }
+
+  public List<RecipeSummary> getRecipeSummariesByIngredient(String ingredient) {
+    return recipeRepository.findSummariesByIngredientsTextContainingIgnoreCase(ingredient);
+  }
+
+  public List<RecipeSummary> getRecipeSummariesByIngredients(
+      List<String> ingredients, MatchMode mode) {
+    requireIngredientIndex();
+    List<Integer> ids = ingredientIndex.search(ingredients, mode, maxSearchResults);
+    if (ids.isEmpty()) {
+      return List.of();
+    }
+    return findSummariesByIdOrdered(ids);
+  }
+
+  // Same ranking and fallback as searchRecipesFullText, reading only the summary columns
+  public List<RecipeSummary> searchRecipeSummariesFullText(String query, int limit) {
+    if (fullTextSearchSupport.isAvailable()) {
+      return recipeRepository.fullTextSearchSummaries(query, limit).stream()
+          .map(RecipeSummary::from)
+          .toList();
+    }
+
+    Map<Integer, RecipeSummary> results = new LinkedHashMap<>();
+    for (RecipeSummary summary : recipeRepository.findSummariesByNameContainingIgnoreCase(query)) {
+      results.put(summary.id(), summary);
+    }
+    for (RecipeSummary summary :
+        recipeRepository.findSummariesByIngredientsTextContainingIgnoreCase(query)) {
+      results.putIfAbsent(summary.id(), summary);
+    }
+    return results.values().stream().limit(limit).toList();
+  }
+
+  public List<RecipeSummary> getRecipeSummariesByCategory(Category category) {
+    return recipeRepository.findSummariesByCategory(category);
+  }
+
+  public List<RecipeSummary> getRecipeSummariesByPrepTimeLessThan(Integer min) {
+    return recipeRepository.findSummariesByPrepTimeMinutesLessThan(min);
+  }
+
+  public List<RecipeSummary> getRecipeSummariesByServings(Integer servings) {
+    return recipeRepository.findSummariesByServings(servings);
+  }
+
   public Recipe createRecipe(Recipe recipe) {
     logger.info("Creating recipe: {}", recipe.getName());
 
@@ -124,41 +418,198 @@ public class RecipeService {
       logger.warn("Attempted to create recipe with prep time greater than 1440");
       throw new InvalidPrepTimeException(prepTime);
     }
-    List<Recipe> existingRecipes =
-        recipeRepository.findByNameContainingIgnoreCase(recipe.getName());
-
-    if (!existingRecipes.isEmpty()) {
+    User user = getAuthenticatedUser();
+    if (isDuplicate(recipe, user)) {
       logger.warn("Attempted to create duplicate recipe: {}", recipe.getName());
       throw new DuplicateRecipeException(recipe.getName());
     }
-    // Get authenticated user
-    String username = getAuthenticatedUsername();
-    User user =
-        userRepository
-            .findByUsername(username)
-            .orElseThrow(() -> new IllegalStateException("User not found: " + username));
 
     // Associate recipe with user
     recipe.setUser(user);
     recipe.setSource(RecipeSource.USER_CREATED);
-    Recipe savedRecipe = recipeRepository.save(recipe);
+    Map<String, Integer> ingredientIds =
+        ingredientDictionary.resolve(ingredientNames(List.of(recipe)));
+    Recipe savedRecipe =
+        transactionTemplate.execute(
+            status -> {
+              linkCanonicalIngredients(List.of(recipe), ingredientIds);
+              return recipeRepository.save(recipe);
+            });
+    indexRecipe(savedRecipe);
     logger.info("Created recipe with id: {}", savedRecipe.getId());
     return savedRecipe;
   }
 
+  // Creates many recipes in one request. Each recipe is validated and duplicate-checked on its
+  // own, the valid ones are saved in chunks (one transaction and batched INSERTs per chunk), and
+  // every recipe gets a result at the same index as in the request
+  public List<BatchRecipeResult> createRecipes(List<Recipe> recipes, User user) {
+    logger.info("Batch creating {} recipes for user {}", recipes.size(), user.getUsername());
+    BatchRecipeResult[] results = new BatchRecipeResult[recipes.size()];
+    Set<String> namesInBatch = new HashSet<>();
+    List<Integer> accepted = new ArrayList<>();
+
+    for (int i = 0; i < recipes.size(); i++) {
+      Recipe recipe = recipes.get(i);
+      if (recipe == null) {
+        results[i] = BatchRecipeResult.invalid(i, Map.of("recipe", "Recipe cannot be null"));
+        continue;
+      }
+      Set<ConstraintViolation<Recipe>> violations = validator.validate(recipe);
+      if (!violations.isEmpty()) {
+        Map<String, String> fieldErrors = new HashMap<>();
+        for (ConstraintViolation<Recipe> violation : violations) {
+          fieldErrors.put(violation.getPropertyPath().toString(), violation.getMessage());
+        }
+        results[i] = BatchRecipeResult.invalid(i, fieldErrors);
+        continue;
+      }
+      // same rule as createRecipe, plus repeated names within this batch
+      if (!namesInBatch.add(recipe.getName().trim().toLowerCase()) || isDuplicate(recipe, user)) {
+        results[i] = BatchRecipeResult.duplicate(i, recipe.getName());
+        continue;
+      }
+      recipe.setId(null);
+      recipe.setUser(user);
+      recipe.setSource(RecipeSource.USER_CREATED);
+      accepted.add(i);
+    }
+
+    // one dictionary lookup (and at most one batch of new ingredient rows) for the whole request
+    Map<String, Integer> ingredientIds =
+        ingredientDictionary.resolve(ingredientNames(accepted.stream().map(recipes::get).toList()));
+
+    for (int start = 0; start < accepted.size(); start += batchChunkSize) {
+      List<Integer> chunk =
+          accepted.subList(start, Math.min(start + batchChunkSize, accepted.size()));
+      List<Recipe> toSave = chunk.stream().map(recipes::get).toList();
+      try {
+        List<Recipe> saved =
+            transactionTemplate.execute(
+                status -> {
+                  linkCanonicalIngredients(toSave, ingredientIds);
+                  return recipeRepository.saveAll(toSave);
+                });
+        for (int j = 0; j < chunk.size(); j++) {
+          Recipe recipe = saved.get(j);
+          indexRecipe(recipe);
+          results[chunk.get(j)] = BatchRecipeResult.created(chunk.get(j), recipe.getId());
+        }
+      } catch (RuntimeException e) {
+        logger.warn("Batch create chunk failed: {}", e.getMessage());
+        for (Integer index : chunk) {
+          results[index] = BatchRecipeResult.failed(index, "Could not save recipe");
+        }
+      }
+    }
+    return List.of(results);
+  }
+
+  private static List<String> ingredientNames(List<Recipe> recipes) {
+    List<String> names = new ArrayList<>();
+    for (Recipe recipe : recipes) {
+      if (recipe.getIngredients() != null) {
+        for (Ingredient ingredient : recipe.getIngredients()) {
+          if (ingredient != null && ingredient.getName() != null) {
+            names.add(ingredient.getName());
+          }
+        }
+      }
+    }
+    return names;
+  }
+
+  // Swaps the ingredients sent by the client for the shared dictionary rows (no duplicates, blank
+  // names dropped). Called inside the save transaction so the rows are managed and the
+  // PERSIST/MERGE cascade on Recipe.ingredients leaves them alone
+  private void linkCanonicalIngredients(List<Recipe> recipes, Map<String, Integer> ingredientIds) {
+    if (ingredientIds.isEmpty()) {
+      for (Recipe recipe : recipes) {
+        recipe.setIngredients(new ArrayList<>());
+      }
+      return;
+    }
+    Map<Integer, Ingredient> byId = new HashMap<>();
+    for (Ingredient ingredient : ingredientRepository.findAllById(ingredientIds.values())) {
+      byId.put(ingredient.getId(), ingredient);
+    }
+    for (Recipe recipe : recipes) {
+      Map<Integer, Ingredient> linked = new LinkedHashMap<>();
+      for (String name : ingredientNames(List.of(recipe))) {
+        Integer id = ingredientIds.get(IngredientDictionary.normalize(name));
+        if (id != null && byId.containsKey(id)) {
+          linked.putIfAbsent(id, byId.get(id));
+        }
+      }
+      recipe.setIngredients(new ArrayList<>(linked.values()));
+    }
+  }
+
+  // A recipe is a duplicate when its name + ingredients are at least recipe.duplicates.threshold
+  // similar to an existing one the user can see (MinHash index). Until the index has loaded, fall
+  // back to the old "name contains" query
+  private boolean isDuplicate(Recipe recipe, User user) {
+    if (duplicateIndex.isReady()) {
+      return !duplicateIndex
+          .findSimilar(recipe.getName(), recipe.getIngredientsText(), user.getId())
+          .isEmpty();
+    }
+    return !recipeRepository.findByNameContainingIgnoreCase(recipe.getName()).isEmpty();
+  }
+
+  public List<DuplicateCluster> findDuplicateClusters(User user, int limit) {
+    if (!duplicateIndex.isReady()) {
+      logger.info("Duplicate index still loading - no clusters yet");
+      return List.of();
+    }
+    return duplicateIndex.clusters(user.getId(), limit);
+  }
+
   public Recipe updateRecipe(Integer id, Recipe updateRecipe) {
+    return updateRecipe(id, updateRecipe, null);
+  }
+
+  // expectedVersions comes from an If-Match header (null means no precondition) - the update
+  // only goes ahead while the recipe is still at one of those versions
+  public Recipe updateRecipe(Integer id, Recipe updateRecipe, List<Long> expectedVersions) {
     Recipe existingRecipe = getRecipeById(id);
 
     validateRecipeOwnership(existingRecipe);
 
+    if (expectedVersions != null && !expectedVersions.contains(existingRecipe.getVersion())) {
+      throw new ApiException(
+          "Recipe has changed since it was fetched",
+          HttpStatus.PRECONDITION_FAILED,
+          "RECIPE_MODIFIED");
+    }
+
     existingRecipe.setName(updateRecipe.getName());
     existingRecipe.setIngredients(updateRecipe.getIngredients());
+    Map<String, Integer> ingredientIds =
+        ingredientDictionary.resolve(ingredientNames(List.of(existingRecipe)));
     existingRecipe.setPrepTimeMinutes(updateRecipe.getPrepTimeMinutes());
     existingRecipe.setServings(updateRecipe.getServings());
     existingRecipe.setCategory(updateRecipe.getCategory());
     existingRecipe.setInstructions(updateRecipe.getInstructions());
     existingRecipe.setDescription(updateRecipe.getDescription());
-    return recipeRepository.save(existingRecipe);
+    Recipe savedRecipe;
+    try {
+      savedRecipe =
+          transactionTemplate.execute(
+              status -> {
+                linkCanonicalIngredients(List.of(existingRecipe), ingredientIds);
+                return recipeRepository.save(existingRecipe);
+              });
+    } catch (OptimisticLockingFailureException e) {
+      // someone else saved the recipe between our read and this write
+      throw new ApiException(
+          "Recipe was updated by another request, fetch it and try again",
+          expectedVersions != null ? HttpStatus.PRECONDITION_FAILED : HttpStatus.CONFLICT,
+          "RECIPE_MODIFIED");
+    }
+    indexRecipe(savedRecipe);
+    renderCache.evict(id);
+    return savedRecipe;
   }
 
   public void deleteRecipe(Integer id) {
@@ -168,6 +619,8 @@ public class RecipeService {
     validateRecipeOwnership(existingRecipe);
 
     recipeRepository.deleteById(id);
+    unindexRecipe(id);
+    renderCache.evict(id);
     logger.info("Deleted recipe with id: {}", id);
   }
 
@@ -180,44 +633,138 @@ public class RecipeService {
   }
 
   public CompletableFuture<Page<Recipe>> getAllRecipesAsync(Pageable pageable) {
-    return CompletableFuture.supplyAsync(() -> getAllRecipes(pageable));
+    return asyncExecutor.supply(() -> getAllRecipes(pageable));
+  }
+
+  public CompletableFuture<CursorPage<Recipe>> getRecipeFeedAsync(
+      String cursor, int size, Sort sort) {
+    return asyncExecutor.supply(() -> getRecipeFeed(cursor, size, sort));
   }
 
   public CompletableFuture<Recipe> getRecipeByIdAsync(Integer id) {
-    return CompletableFuture.supplyAsync(() -> getRecipeById(id));
+    return asyncExecutor.supply(() -> getRecipeById(id));
+  }
+
+  public CompletableFuture<RecipeRenderCache.RenderedRecipe> getRenderedRecipeAsync(
+      Integer id, BiPredicate<Long, Instant> isCurrent) {
+    return asyncExecutor.supply(() -> getRenderedRecipe(id, isCurrent));
   }
 
   public CompletableFuture<List<Recipe>> getRecipesByNameAsync(String name) {
-    return CompletableFuture.supplyAsync(() -> getRecipesByName(name));
+    return asyncExecutor.supply(() -> getRecipesByName(name));
   }
 
   public CompletableFuture<List<Recipe>> getRecipeByIngredientAsync(String ingredient) {
-    return CompletableFuture.supplyAsync(() -> getRecipeByIngredient(ingredient));
+    return asyncExecutor.supply(() -> getRecipeByIngredient(ingredient));
   }
 
   public CompletableFuture<List<Recipe>> getRecipeByCategoryAsync(Category category) {
-    return CompletableFuture.supplyAsync(() -> getRecipeByCategory(category));
+    return asyncExecutor.supply(() -> getRecipeByCategory(category));
   }
 
   public CompletableFuture<List<Recipe>> getRecipeByPrepTimeLessThanAsync(Integer min) {
-    return CompletableFuture.supplyAsync(() -> getRecipeByPrepTimeLessThan(min));
+    return asyncExecutor.supply(() -> getRecipeByPrepTimeLessThan(min));
   }
 
   public CompletableFuture<List<Recipe>> getRecipesByServingsAsync(Integer servings) {
-    return CompletableFuture.supplyAsync(() -> getRecipesByServings(servings));
+    return asyncExecutor.supply(() -> getRecipesByServings(servings));
   }
 
   public CompletableFuture<List<Recipe>> getFindByPrepTimeMinutesBetweenAsync(
       Integer min, Integer max) {
-    return CompletableFuture.supplyAsync(() -> getRecipesByPrepTimeRange(min, max));
+    return asyncExecutor.supply(() -> getRecipesByPrepTimeRange(min, max));
+  }
+
+  public CompletableFuture<Page<RecipeSummary>> getAllRecipeSummariesAsync(Pageable pageable) {
+    return asyncExecutor.supply(() -> getAllRecipeSummaries(pageable));
+  }
+
+  public CompletableFuture<CursorPage<RecipeSummary>> getRecipeSummaryFeedAsync(
+      String cursor, int size, Sort sort) {
+    return asyncExecutor.supply(() -> getRecipeSummaryFeed(cursor, size, sort));
+  }
+
+  public CompletableFuture<List<RecipeSummary>> getRecipeSummariesByNameAsync(String name) {
+    return asyncExecutor.supply(() -> getRecipeSummariesByName(name));
+  }
+
+  public CompletableFuture<List<RecipeSummary>> getRecipeSummariesByIngredientAsync(
+      String ingredient) {
+    return asyncExecutor.supply(() -> getRecipeSummariesByIngredient(ingredient));
+  }
+
+  public CompletableFuture<List<RecipeSummary>> getRecipeSummariesByCategoryAsync(
+      Category category) {
+    return asyncExecutor.supply(() -> getRecipeSummariesByCategory(category));
+  }
+
+  public CompletableFuture<List<RecipeSummary>> getRecipeSummariesByPrepTimeLessThanAsync(
+      Integer min) {
+    return asyncExecutor.supply(() -> getRecipeSummariesByPrepTimeLessThan(min));
+  }
+
+  public CompletableFuture<List<RecipeSummary>> getRecipeSummariesByServingsAsync(
+      Integer servings) {
+    return asyncExecutor.supply(() -> getRecipeSummariesByServings(servings));
   }
 
   public CompletableFuture<Recipe> createRecipeAsync(Recipe recipe) {
-    return CompletableFuture.supplyAsync(() -> createRecipe(recipe));
+    return asyncExecutor.supply(() -> createRecipe(recipe));
   }
 
   public CompletableFuture<Recipe> updateRecipeAsync(Integer id, Recipe recipe) {
-    return CompletableFuture.supplyAsync(() -> updateRecipe(id, recipe));
+    return asyncExecutor.supply(() -> updateRecipe(id, recipe));
+  }
+
+  // There is no query that matches ingredient words the way the index does (stop words, plural
+  // folding, every word of "olive oil"), so rather than answer differently until it has loaded,
+  // ask the client to retry. The index loads before the app reports itself ready for traffic
+  private void requireIngredientIndex() {
+    if (!ingredientIndex.isReady()) {
+      throw new ApiException(
+          "Ingredient search is starting up, please try again shortly",
+          HttpStatus.SERVICE_UNAVAILABLE,
+          "INDEX_LOADING");
+    }
+  }
+
+  private List<Recipe> findAllByIdOrdered(List<Integer> ids) {
+    List<Recipe> recipes = new ArrayList<>(ids.size());
+    for (int from = 0; from < ids.size(); from += ID_LOOKUP_CHUNK) {
+      recipes.addAll(
+          recipeRepository.findAllById(
+              ids.subList(from, Math.min(from + ID_LOOKUP_CHUNK, ids.size()))));
+    }
+    recipes.sort(Comparator.comparing(Recipe::getId));
+    return recipes;
+  }
+
+  // ids are ascending and each chunk comes back ordered by id, so the result is too
+  private List<RecipeSummary> findSummariesByIdOrdered(List<Integer> ids) {
+    List<RecipeSummary> summaries = new ArrayList<>(ids.size());
+    for (int from = 0; from < ids.size(); from += ID_LOOKUP_CHUNK) {
+      summaries.addAll(
+          recipeRepository.findSummariesByIdIn(
+              ids.subList(from, Math.min(from + ID_LOOKUP_CHUNK, ids.size()))));
+    }
+    return summaries;
+  }
+
+  private void indexRecipe(Recipe recipe) {
+    recipeNameIndex.put(recipe.getId(), recipe.getName());
+    ingredientIndex.put(recipe.getId(), recipe.getIngredientsText());
+    duplicateIndex.put(
+        recipe.getId(),
+        recipe.getName(),
+        recipe.getIngredientsText(),
+        DuplicateIndex.ownerOf(
+            recipe.getSource(), recipe.getUser() != null ? recipe.getUser().getId() : null));
+  }
+
+  private void unindexRecipe(Integer id) {
+    recipeNameIndex.remove(id);
+    ingredientIndex.remove(id);
+    duplicateIndex.remove(id);
   }
 
   private String getAuthenticatedUsername() {
@@ -228,6 +775,13 @@ public class RecipeService {
     return authentication.getName();
   }
 
+  private User getAuthenticatedUser() {
+    String username = getAuthenticatedUsername();
+    return userRepository
+        .findByUsername(username)
+        .orElseThrow(() -> new IllegalStateException("User not found: " + username));
+  }
+
   private void validateRecipeOwnership(Recipe recipe) {
     String authenticatedUsername = getAuthenticatedUsername();
 
@@ -283,12 +837,99 @@ public class RecipeService {
     SpoonacularRecipeDetailDTO spoonacularRecipe =
         spoonacularService.getRecipeInformation(spoonacularId);
 
-    // Step 2: Convert to text
+    // Step 2: Convert to a Recipe entity
+    Recipe recipe = toSpoonacularRecipe(spoonacularId, spoonacularRecipe, user);
+
+    // Step 3: Save, index and return
+    Recipe savedRecipe = recipeRepository.save(recipe);
+    indexRecipe(savedRecipe);
+    return savedRecipe;
+  }
+
+  // Imports many Spoonacular recipes at once. Ids are processed in chunks: one bulk upstream call
+  // per chunk, conversion in parallel, and one transaction (batched inserts) per chunk. A failing
+  // chunk doesn't undo earlier ones - every id gets its own result
+  public List<BulkImportResult> importSpoonacularRecipes(List<Integer> spoonacularIds, User user) {
+    List<Integer> ids = spoonacularIds.stream().filter(Objects::nonNull).distinct().toList();
+    Map<Integer, BulkImportResult> results = new HashMap<>();
+    logger.info(
+        "Bulk importing {} Spoonacular recipes for user {}", ids.size(), user.getUsername());
+
+    for (int start = 0; start < ids.size(); start += bulkChunkSize) {
+      List<Integer> chunk = ids.subList(start, Math.min(start + bulkChunkSize, ids.size()));
+      try {
+        importChunk(chunk, user, results);
+      } catch (RuntimeException e) {
+        logger.warn("Bulk import chunk failed: {}", e.getMessage());
+        for (Integer id : chunk) {
+          results.putIfAbsent(id, BulkImportResult.failed(id, "Could not import recipe"));
+        }
+      }
+    }
+    return ids.stream().map(results::get).toList();
+  }
+
+  private void importChunk(List<Integer> chunk, User user, Map<Integer, BulkImportResult> results) {
+    Set<Integer> alreadyImported =
+        new HashSet<>(recipeRepository.findImportedSpoonacularIds(user.getId(), chunk));
+    List<Integer> toFetch = new ArrayList<>();
+    for (Integer id : chunk) {
+      if (alreadyImported.contains(id)) {
+        results.put(id, BulkImportResult.alreadyImported(id));
+      } else {
+        toFetch.add(id);
+      }
+    }
+    if (toFetch.isEmpty()) {
+      return;
+    }
+
+    Map<Integer, SpoonacularRecipeDetailDTO> details =
+        spoonacularService.getRecipeInformationBulk(toFetch);
+
+    // Conversion is independent per recipe, so do it in parallel
+    Map<Integer, Recipe> converted = new ConcurrentHashMap<>();
+    Map<Integer, BulkImportResult> rejected = new ConcurrentHashMap<>();
+    toFetch.parallelStream()
+        .forEach(
+            id -> {
+              SpoonacularRecipeDetailDTO detail = details.get(id);
+              if (detail == null) {
+                rejected.put(id, BulkImportResult.notFound(id));
+                return;
+              }
+              try {
+                converted.put(id, toSpoonacularRecipe(id, detail, user));
+              } catch (RuntimeException e) {
+                rejected.put(id, BulkImportResult.failed(id, "Could not convert recipe"));
+              }
+            });
+    results.putAll(rejected);
+
+    List<Recipe> recipes = new ArrayList<>();
+    for (Integer id : toFetch) {
+      if (converted.containsKey(id)) {
+        recipes.add(converted.get(id));
+      }
+    }
+    if (recipes.isEmpty()) {
+      return;
+    }
+
+    List<Recipe> saved = transactionTemplate.execute(status -> recipeRepository.saveAll(recipes));
+    for (Recipe recipe : saved) {
+      indexRecipe(recipe);
+      results.put(
+          recipe.getSpoonacularId(),
+          BulkImportResult.imported(recipe.getSpoonacularId(), recipe.getId()));
+    }
+  }
+
+  private Recipe toSpoonacularRecipe(
+      Integer spoonacularId, SpoonacularRecipeDetailDTO spoonacularRecipe, User user) {
     String ingredientsText = convertIngredientsToText(spoonacularRecipe.extendedIngredients());
     String instructionsText = convertInstructionsToText(spoonacularRecipe.analyzedInstructions());
 
-    // Step 3: Create Recipe entity
-    // Step 3: Create Recipe entity
     Recipe recipe = new Recipe();
     recipe.setName(spoonacularRecipe.title());
     recipe.setImageUrl(spoonacularRecipe.image());
@@ -300,8 +941,6 @@ public class RecipeService {
     recipe.setSource(RecipeSource.SPOONACULAR);
     recipe.setSpoonacularId(spoonacularId);
     recipe.setUser(user);
-
-    // Step 4: Save and return
-    return recipeRepository.save(recipe);
+    return recipe;
   }
 }
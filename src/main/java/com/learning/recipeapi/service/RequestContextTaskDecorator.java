@@ -0,0 +1,41 @@
+package com.learning.recipeapi.service;
+
+import org.slf4j.MDC;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.Map;
+
+// SecurityContextHolder and MDC are thread-locals, so a task handed to another thread would run
+// with no logged-in user and no log context. This copies both from the submitting (request)
+// thread and puts the worker thread back the way it was afterwards
+class RequestContextTaskDecorator implements TaskDecorator {
+
+  @Override
+  public Runnable decorate(Runnable runnable) {
+    SecurityContext securityContext = SecurityContextHolder.getContext();
+    Map<String, String> mdc = MDC.getCopyOfContextMap();
+
+    return () -> {
+      SecurityContext previousSecurityContext = SecurityContextHolder.getContext();
+      Map<String, String> previousMdc = MDC.getCopyOfContextMap();
+      SecurityContextHolder.setContext(securityContext);
+      setMdc(mdc);
+      try {
+        runnable.run();
+      } finally {
+        SecurityContextHolder.setContext(previousSecurityContext);
+        setMdc(previousMdc);
+      }
+    };
+  }
+
+  private static void setMdc(Map<String, String> contextMap) {
+    if (contextMap == null) {
+      MDC.clear();
+    } else {
+      MDC.setContextMap(contextMap);
+    }
+  }
+}
@@ -0,0 +1,61 @@
+package com.learning.recipeapi.service;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+// Coalesces concurrent calls for the same key: the first caller runs the call, everyone who
+// arrives while it is in flight waits for and shares its result - or its exception.
+// Nothing is remembered once the call finishes (caching is a separate concern)
+public class SingleFlight<K, V> {
+  private final ConcurrentMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+  private final AtomicLong coalesced = new AtomicLong();
+
+  public V execute(K key, Supplier<V> call) {
+    CompletableFuture<V> flight = new CompletableFuture<>();
+    CompletableFuture<V> existing = inFlight.putIfAbsent(key, flight);
+    if (existing != null) {
+      coalesced.incrementAndGet();
+      return await(existing);
+    }
+
+    try {
+      V result = call.get();
+      flight.complete(result);
+      return result;
+    } catch (RuntimeException | Error e) {
+      flight.completeExceptionally(e);
+      throw e;
+    } finally {
+      inFlight.remove(key, flight);
+    }
+  }
+
+  // How many callers were served by someone else's call instead of making their own
+  public long getCoalescedCount() {
+    return coalesced.get();
+  }
+
+  public int getInFlightCount() {
+    return inFlight.size();
+  }
+
+  private V await(CompletableFuture<V> flight) {
+    try {
+      return flight.join();
+    } catch (CompletionException e) {
+      // rethrow the leader's original exception so callers see the same error type
+      Throwable cause = e.getCause();
+      if (cause instanceof RuntimeException runtimeException) {
+        throw runtimeException;
+      }
+      if (cause instanceof Error error) {
+        throw error;
+      }
+      throw e;
+    }
+  }
+}
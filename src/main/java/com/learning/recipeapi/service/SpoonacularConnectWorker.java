@@ -0,0 +1,193 @@
+package com.learning.recipeapi.service;
+
+import com.learning.recipeapi.entity.OutboxEvent;
+import com.learning.recipeapi.entity.User;
+import com.learning.recipeapi.repository.OutboxEventRepository;
+import com.learning.recipeapi.repository.UserRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Drains CONNECT_SPOONACULAR_USER outbox events written by UserService.registerUser and stores
+// the returned hash on the user. Failures are retried with exponential backoff until maxAttempts.
+@Component
+public class SpoonacularConnectWorker {
+  private static final Logger logger = LoggerFactory.getLogger(SpoonacularConnectWorker.class);
+
+  private final OutboxEventRepository outboxEventRepository;
+  private final UserRepository userRepository;
+  private final SpoonacularService spoonacularService;
+  private final TransactionTemplate transactionTemplate;
+
+  // PENDING events as of the last poll - the gauge reads this rather than counting the table on
+  // every scrape
+  private final AtomicLong pending = new AtomicLong();
+
+  @Value("${outbox.batch-size:50}")
+  private int batchSize = 50;
+
+  @Value("${outbox.max-attempts:10}")
+  private int maxAttempts = 10;
+
+  @Value("${outbox.backoff.initial:10s}")
+  private Duration initialBackoff = Duration.ofSeconds(10);
+
+  @Value("${outbox.backoff.max:1h}")
+  private Duration maxBackoff = Duration.ofHours(1);
+
+  // how long a claimed event stays hidden from other workers while its call is in flight
+  @Value("${outbox.lease:2m}")
+  private Duration lease = Duration.ofMinutes(2);
+
+  @Autowired
+  public SpoonacularConnectWorker(
+      OutboxEventRepository outboxEventRepository,
+      UserRepository userRepository,
+      SpoonacularService spoonacularService,
+      PlatformTransactionManager transactionManager,
+      MeterRegistry meterRegistry) {
+    this.outboxEventRepository = outboxEventRepository;
+    this.userRepository = userRepository;
+    this.spoonacularService = spoonacularService;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+
+    Gauge.builder("outbox.events.pending", pending, AtomicLong::get).register(meterRegistry);
+  }
+
+  @Scheduled(
+      initialDelayString = "${outbox.poll-interval:5s}",
+      fixedDelayString = "${outbox.poll-interval:5s}")
+  public void poll() {
+    try {
+      drain();
+    } catch (RuntimeException e) {
+      // keep the schedule alive, the events are still in the table for the next run
+      logger.error("Outbox drain failed", e);
+    }
+    try {
+      pending.set(outboxEventRepository.countByStatus(OutboxEvent.Status.PENDING));
+    } catch (RuntimeException e) {
+      // the gauge keeps the previous count until the next poll
+      logger.warn("Counting pending outbox events failed: {}", e.getMessage());
+    }
+  }
+
+  // keeps claiming batches until a short one comes back, returns how many events were handled
+  public int drain() {
+    int handled = 0;
+    List<OutboxEvent> batch;
+    do {
+      batch = transactionTemplate.execute(status -> claimBatch());
+      if (batch == null) {
+        break;
+      }
+      for (OutboxEvent event : batch) {
+        process(event);
+      }
+      handled += batch.size();
+    } while (batch.size() == batchSize);
+    return handled;
+  }
+
+  // Claiming pushes nextAttemptAt out by the lease and counts the attempt, all under the row
+  // locks. The HTTP call then happens outside any transaction so no locks are held while waiting
+  // on Spoonacular, and if this instance dies the event becomes due again once the lease runs out.
+  private List<OutboxEvent> claimBatch() {
+    LocalDateTime now = LocalDateTime.now();
+    List<OutboxEvent> due =
+        outboxEventRepository.findDue(
+            OutboxEvent.Status.PENDING, now, PageRequest.of(0, batchSize));
+    for (OutboxEvent event : due) {
+      event.setAttempts(event.getAttempts() + 1);
+      event.setNextAttemptAt(now.plus(lease));
+    }
+    return outboxEventRepository.saveAll(due);
+  }
+
+  private void process(OutboxEvent event) {
+    try {
+      Optional<User> user = userRepository.findOneById(event.getAggregateId());
+      if (user.isEmpty() || user.get().getSpoonacularHash() != null) {
+        // user deleted since, or already connected by an earlier attempt
+        complete(event, null);
+        return;
+      }
+      String hash = spoonacularService.connectUser(user.get().getUsername(), user.get().getEmail());
+      complete(event, hash);
+    } catch (RuntimeException e) {
+      fail(event, e);
+    }
+  }
+
+  private void complete(OutboxEvent event, String hash) {
+    transactionTemplate.executeWithoutResult(
+        status -> {
+          if (hash != null) {
+            userRepository
+                .findOneById(event.getAggregateId())
+                .ifPresent(
+                    user -> {
+                      user.setSpoonacularHash(hash);
+                      userRepository.save(user);
+                    });
+          }
+          event.setStatus(OutboxEvent.Status.DONE);
+          event.setProcessedAt(LocalDateTime.now());
+          event.setLastError(null);
+          outboxEventRepository.save(event);
+        });
+    logger.info("Connected user {} to Spoonacular", event.getAggregateId());
+  }
+
+  private void fail(OutboxEvent event, RuntimeException e) {
+    String error = e.getClass().getSimpleName() + ": " + e.getMessage();
+    if (error.length() > 1000) {
+      error = error.substring(0, 1000);
+    }
+    event.setLastError(error);
+
+    if (event.getAttempts() >= maxAttempts) {
+      event.setStatus(OutboxEvent.Status.FAILED);
+      logger.error(
+          "Giving up connecting user {} to Spoonacular after {} attempts: {}",
+          event.getAggregateId(),
+          event.getAttempts(),
+          error);
+    } else {
+      Duration delay = backoff(event.getAttempts());
+      event.setNextAttemptAt(LocalDateTime.now().plus(delay));
+      logger.warn(
+          "Connecting user {} to Spoonacular failed (attempt {}), retrying in {}: {}",
+          event.getAggregateId(),
+          event.getAttempts(),
+          delay,
+          error);
+    }
+    transactionTemplate.executeWithoutResult(status -> outboxEventRepository.save(event));
+  }
+
+  // initialBackoff * 2^(attempt - 1) capped at maxBackoff, plus up to 20% jitter so events
+  // that failed together during an outage don't all retry at the same moment
+  Duration backoff(int attempt) {
+    long initialMillis = initialBackoff.toMillis();
+    int shift = Math.min(Math.max(attempt - 1, 0), 30);
+    long millis = Math.min(maxBackoff.toMillis(), initialMillis * (1L << shift));
+    long jitter = ThreadLocalRandom.current().nextLong(millis / 5 + 1);
+    return Duration.ofMillis(millis + jitter);
+  }
+}
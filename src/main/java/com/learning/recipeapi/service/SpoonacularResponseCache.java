@@ -0,0 +1,120 @@
+package com.learning.recipeapi.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.learning.recipeapi.dto.SpoonacularRecipeDetailDTO;
+import com.learning.recipeapi.dto.SpoonacularSearchResponse;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Optional;
+
+// Caches Spoonacular responses so identical lookups don't each cost an HTTP call and API quota.
+// Caffeine evicts by frequency and recency (W-TinyLFU) once a cache reaches its size limit.
+// Search results and recipe details have separate TTLs. "Nothing found" answers (empty searches,
+// 404 details) are cached too, with a shorter TTL so new Spoonacular content shows up quickly
+@Component
+public class SpoonacularResponseCache {
+
+  record SearchKey(String query, Integer number) {}
+
+  private final Cache<SearchKey, SpoonacularSearchResponse> searches;
+
+  // Optional.empty() marks a recipe Spoonacular told us does not exist
+  private final Cache<Integer, Optional<SpoonacularRecipeDetailDTO>> details;
+
+  @Autowired
+  public SpoonacularResponseCache(
+      MeterRegistry meterRegistry,
+      @Value("${spoonacular.cache.search.max-size:1000}") long searchMaxSize,
+      @Value("${spoonacular.cache.search.ttl:10m}") Duration searchTtl,
+      @Value("${spoonacular.cache.details.max-size:5000}") long detailsMaxSize,
+      @Value("${spoonacular.cache.details.ttl:24h}") Duration detailsTtl,
+      @Value("${spoonacular.cache.negative-ttl:2m}") Duration negativeTtl) {
+    this.searches =
+        Caffeine.newBuilder()
+            .maximumSize(searchMaxSize)
+            .expireAfter(
+                ttlPolicy(
+                    (SpoonacularSearchResponse response) ->
+                        response.results() == null || response.results().isEmpty(),
+                    searchTtl,
+                    negativeTtl))
+            .recordStats()
+            .build();
+    this.details =
+        Caffeine.newBuilder()
+            .maximumSize(detailsMaxSize)
+            .expireAfter(
+                ttlPolicy(
+                    (Optional<SpoonacularRecipeDetailDTO> detail) -> detail.isEmpty(),
+                    detailsTtl,
+                    negativeTtl))
+            .recordStats()
+            .build();
+    CaffeineCacheMetrics.monitor(meterRegistry, searches, "spoonacular.search");
+    CaffeineCacheMetrics.monitor(meterRegistry, details, "spoonacular.details");
+  }
+
+  static SearchKey searchKey(String query, Integer number) {
+    return new SearchKey(query == null ? "" : query.trim().toLowerCase(Locale.ROOT), number);
+  }
+
+  public SpoonacularSearchResponse getSearch(SearchKey key) {
+    return searches.getIfPresent(key);
+  }
+
+  public void putSearch(SearchKey key, SpoonacularSearchResponse response) {
+    if (response != null) {
+      searches.put(key, response);
+    }
+  }
+
+  // null = not cached, Optional.empty() = cached "not found"
+  public Optional<SpoonacularRecipeDetailDTO> getDetails(Integer spoonacularId) {
+    return details.getIfPresent(spoonacularId);
+  }
+
+  public void putDetails(Integer spoonacularId, SpoonacularRecipeDetailDTO detail) {
+    details.put(spoonacularId, Optional.ofNullable(detail));
+  }
+
+  public CacheStats searchStats() {
+    return searches.stats();
+  }
+
+  public CacheStats detailStats() {
+    return details.stats();
+  }
+
+  private interface NegativeCheck<V> {
+    boolean isNegative(V value);
+  }
+
+  private static <K, V> Expiry<K, V> ttlPolicy(
+      NegativeCheck<V> negativeCheck, Duration ttl, Duration negativeTtl) {
+    return new Expiry<>() {
+      @Override
+      public long expireAfterCreate(K key, V value, long currentTime) {
+        return (negativeCheck.isNegative(value) ? negativeTtl : ttl).toNanos();
+      }
+
+      @Override
+      public long expireAfterUpdate(K key, V value, long currentTime, long currentDuration) {
+        return expireAfterCreate(key, value, currentTime);
+      }
+
+      @Override
+      public long expireAfterRead(K key, V value, long currentTime, long currentDuration) {
+        return currentDuration;
+      }
+    };
+  }
+}
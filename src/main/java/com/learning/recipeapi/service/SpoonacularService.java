@@ -2,18 +2,25 @@ package com.learning.recipeapi.service;
 
 import com.learning.recipeapi.dto.*;
 
-import com.learning.recipeapi.entity.User;
+import com.learning.recipeapi.exception.RecipeNotFoundException;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
+import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.RestTemplate;
 import org.springframework.web.util.UriComponentsBuilder;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
 @Service
 public class SpoonacularService {
@@ -24,9 +31,27 @@ public class SpoonacularService {
   private String baseUrl;
 
   private final RestTemplate restTemplate;
-
-  public SpoonacularService(RestTemplate restTemplate) {
+  private final SpoonacularResponseCache responseCache;
+
+  // One upstream request per key at a time - concurrent identical lookups share it
+  private final SingleFlight<SpoonacularResponseCache.SearchKey, SpoonacularSearchResponse>
+      searchFlights = new SingleFlight<>();
+  private final SingleFlight<Integer, Optional<SpoonacularRecipeDetailDTO>> detailFlights =
+      new SingleFlight<>();
+
+  // Every HTTP call goes through both - see ResilienceConfig
+  private final CircuitBreaker circuitBreaker;
+  private final Bulkhead bulkhead;
+
+  public SpoonacularService(
+      RestTemplate restTemplate,
+      SpoonacularResponseCache responseCache,
+      CircuitBreaker spoonacularCircuitBreaker,
+      Bulkhead spoonacularBulkhead) {
     this.restTemplate = restTemplate;
+    this.responseCache = responseCache;
+    this.circuitBreaker = spoonacularCircuitBreaker;
+    this.bulkhead = spoonacularBulkhead;
   }
 
   public String connectUser(String username, String email) {
@@ -50,29 +75,127 @@ public class SpoonacularService {
 
     // 5. Make POST request
     SpoonacularConnectResponse response =
-        restTemplate.postForObject(url, request, SpoonacularConnectResponse.class);
+        call(() -> restTemplate.postForObject(url, request, SpoonacularConnectResponse.class));
 
     // 6. Return the hash
     return response.hash();
   }
 
   public SpoonacularSearchResponse searchRecipes(String query, Integer number) {
+    SpoonacularResponseCache.SearchKey key = SpoonacularResponseCache.searchKey(query, number);
+    SpoonacularSearchResponse cached = responseCache.getSearch(key);
+    if (cached != null) {
+      return cached;
+    }
+
+    return searchFlights.execute(
+        key,
+        () -> {
+          // another flight may have filled the cache between our check and getting here
+          SpoonacularSearchResponse fresh = responseCache.getSearch(key);
+          if (fresh != null) {
+            return fresh;
+          }
+          SpoonacularSearchResponse response = fetchSearch(query, number);
+          responseCache.putSearch(key, response);
+          return response;
+        });
+  }
+
+  public SpoonacularRecipeDetailDTO getRecipeInformation(Integer spoonacularId) {
+    Optional<SpoonacularRecipeDetailDTO> cached = responseCache.getDetails(spoonacularId);
+    if (cached == null) {
+      cached = detailFlights.execute(spoonacularId, () -> loadRecipeInformation(spoonacularId));
+    }
+    return cached.orElseThrow(
+        () -> new RecipeNotFoundException("Spoonacular recipe not found with id " + spoonacularId));
+  }
+
+  private Optional<SpoonacularRecipeDetailDTO> loadRecipeInformation(Integer spoonacularId) {
+    Optional<SpoonacularRecipeDetailDTO> fresh = responseCache.getDetails(spoonacularId);
+    if (fresh != null) {
+      return fresh;
+    }
+    Optional<SpoonacularRecipeDetailDTO> loaded;
+    try {
+      loaded = Optional.ofNullable(fetchRecipeInformation(spoonacularId));
+    } catch (HttpClientErrorException.NotFound e) {
+      loaded = Optional.empty();
+    }
+    responseCache.putDetails(spoonacularId, loaded.orElse(null));
+    return loaded;
+  }
+
+  // Details for many recipes with one upstream call per chunk (Spoonacular's informationBulk).
+  // Cached recipes are not fetched again; ids missing from the result are cached as not found.
+  // The returned map has no entry for ids that do not exist
+  public Map<Integer, SpoonacularRecipeDetailDTO> getRecipeInformationBulk(
+      List<Integer> spoonacularIds) {
+    Map<Integer, SpoonacularRecipeDetailDTO> result = new HashMap<>();
+    List<Integer> missing = new ArrayList<>();
+    for (Integer id : spoonacularIds) {
+      Optional<SpoonacularRecipeDetailDTO> cached = responseCache.getDetails(id);
+      if (cached == null) {
+        missing.add(id);
+      } else {
+        cached.ifPresent(detail -> result.put(id, detail));
+      }
+    }
+    if (missing.isEmpty()) {
+      return result;
+    }
+
     String url =
-        UriComponentsBuilder.fromHttpUrl(baseUrl + "/recipes/complexSearch")
+        UriComponentsBuilder.fromUriString(baseUrl + "/recipes/informationBulk")
+            .queryParam("apiKey", apiKey)
+            .queryParam(
+                "ids", missing.stream().map(String::valueOf).collect(Collectors.joining(",")))
+            .toUriString();
+    SpoonacularRecipeDetailDTO[] fetched =
+        call(() -> restTemplate.getForObject(url, SpoonacularRecipeDetailDTO[].class));
+
+    if (fetched != null) {
+      for (SpoonacularRecipeDetailDTO detail : fetched) {
+        if (detail != null && detail.id() != null) {
+          result.put(detail.id(), detail);
+        }
+      }
+    }
+    for (Integer id : missing) {
+      responseCache.putDetails(id, result.get(id));
+    }
+    return result;
+  }
+
+  public long getCoalescedCallCount() {
+    return searchFlights.getCoalescedCount() + detailFlights.getCoalescedCount();
+  }
+
+  private SpoonacularSearchResponse fetchSearch(String query, Integer number) {
+    String url =
+        UriComponentsBuilder.fromUriString(baseUrl + "/recipes/complexSearch")
             .queryParam("apiKey", apiKey)
             .queryParam("query", query)
             .queryParam("number", number)
             .toUriString();
 
-    return restTemplate.getForObject(url, SpoonacularSearchResponse.class);
+    return call(() -> restTemplate.getForObject(url, SpoonacularSearchResponse.class));
   }
 
-  public SpoonacularRecipeDetailDTO getRecipeInformation(Integer spoonacularId) {
+  private SpoonacularRecipeDetailDTO fetchRecipeInformation(Integer spoonacularId) {
     String url =
-        UriComponentsBuilder.fromHttpUrl(baseUrl + "/recipes/" + spoonacularId + "/information")
+        UriComponentsBuilder.fromUriString(baseUrl + "/recipes/" + spoonacularId + "/information")
             .queryParam("apiKey", apiKey)
             .toUriString();
 
-    return restTemplate.getForObject(url, SpoonacularRecipeDetailDTO.class);
+    return call(() -> restTemplate.getForObject(url, SpoonacularRecipeDetailDTO.class));
+  }
+
+  // Fails fast with CallNotPermittedException while the circuit is open and with
+  // BulkheadFullException when too many calls are already waiting on Spoonacular
+  private <T> T call(Supplier<T> request) {
+    return CircuitBreaker.decorateSupplier(
+            circuitBreaker, Bulkhead.decorateSupplier(bulkhead, request))
+        .get();
   }
 }
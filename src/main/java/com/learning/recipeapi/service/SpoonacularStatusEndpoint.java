@@ -0,0 +1,61 @@
+package com.learning.recipeapi.service;
+
+import com.learning.recipeapi.config.ResilienceConfig;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// GET /actuator/spoonacular - one view of the upstream's health from our side:
+// breaker state, failure rate, fast-failed and bulkhead-rejected calls
+@Component
+@Endpoint(id = "spoonacular")
+public class SpoonacularStatusEndpoint {
+  private final CircuitBreaker circuitBreaker;
+  private final Bulkhead bulkhead;
+  private final MeterRegistry meterRegistry;
+
+  public SpoonacularStatusEndpoint(
+      CircuitBreaker spoonacularCircuitBreaker,
+      Bulkhead spoonacularBulkhead,
+      MeterRegistry meterRegistry) {
+    this.circuitBreaker = spoonacularCircuitBreaker;
+    this.bulkhead = spoonacularBulkhead;
+    this.meterRegistry = meterRegistry;
+  }
+
+  @ReadOperation
+  public Map<String, Object> status() {
+    CircuitBreaker.Metrics breakerMetrics = circuitBreaker.getMetrics();
+    Map<String, Object> breaker = new LinkedHashMap<>();
+    breaker.put("state", circuitBreaker.getState().name());
+    breaker.put("failureRate", breakerMetrics.getFailureRate());
+    breaker.put("slowCallRate", breakerMetrics.getSlowCallRate());
+    breaker.put("bufferedCalls", breakerMetrics.getNumberOfBufferedCalls());
+    breaker.put("failedCalls", breakerMetrics.getNumberOfFailedCalls());
+    breaker.put("notPermittedCalls", breakerMetrics.getNumberOfNotPermittedCalls());
+
+    Map<String, Object> bulkheadStatus = new LinkedHashMap<>();
+    bulkheadStatus.put(
+        "availableConcurrentCalls", bulkhead.getMetrics().getAvailableConcurrentCalls());
+    bulkheadStatus.put(
+        "maxAllowedConcurrentCalls", bulkhead.getMetrics().getMaxAllowedConcurrentCalls());
+    Counter rejected =
+        meterRegistry
+            .find("resilience4j.bulkhead.rejected.calls")
+            .tag("name", ResilienceConfig.SPOONACULAR)
+            .counter();
+    bulkheadStatus.put("rejectedCalls", rejected != null ? (long) rejected.count() : 0L);
+
+    Map<String, Object> status = new LinkedHashMap<>();
+    status.put("circuitBreaker", breaker);
+    status.put("bulkhead", bulkheadStatus);
+    return status;
+  }
+}
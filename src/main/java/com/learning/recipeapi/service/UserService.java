@@ -3,11 +3,13 @@ package com.learning.recipeapi.service;
 import com.learning.recipeapi.dto.AuthResponse;
 import com.learning.recipeapi.dto.LoginRequest;
 import com.learning.recipeapi.dto.RegisterRequest;
+import com.learning.recipeapi.entity.OutboxEvent;
 import com.learning.recipeapi.entity.Recipe;
 import com.learning.recipeapi.entity.User;
 import com.learning.recipeapi.exception.DuplicateRecipeException;
 import com.learning.recipeapi.exception.InvalidPrepTimeException;
 import com.learning.recipeapi.exception.RecipeNotFoundException;
+import com.learning.recipeapi.repository.OutboxEventRepository;
 import com.learning.recipeapi.repository.RecipeRepository;
 import com.learning.recipeapi.repository.UserRepository;
 import com.learning.recipeapi.security.JwtUtil;
@@ -17,6 +19,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
@@ -26,7 +29,7 @@ public class UserService {
   private final UserRepository userRepository;
   private final PasswordEncoder passwordEncoder;
   private final JwtUtil jwtUtil;
-  private final SpoonacularService spoonacularService;
+  private final OutboxEventRepository outboxEventRepository;
 
   private static final Logger logger = LoggerFactory.getLogger(UserService.class);
 
@@ -35,11 +38,11 @@ public class UserService {
       UserRepository userRepository,
       PasswordEncoder passwordEncoder,
       JwtUtil jwtUtil,
-      SpoonacularService spoonacularService) {
+      OutboxEventRepository outboxEventRepository) {
     this.userRepository = userRepository;
     this.passwordEncoder = passwordEncoder;
     this.jwtUtil = jwtUtil;
-    this.spoonacularService = spoonacularService;
+    this.outboxEventRepository = outboxEventRepository;
   }
 
   public User createUser(User user) {
@@ -62,6 +65,7 @@ public class UserService {
     return userRepository.findByUsername(username);
   }
 
+  @Transactional
   public AuthResponse registerUser(RegisterRequest request) {
 
     // 1. Check username exists
@@ -85,11 +89,10 @@ public class UserService {
 
     User savedUser = userRepository.save(newUser);
 
-    // Call Spoonacular and store the hash
-    String spoonacularHash =
-        spoonacularService.connectUser(savedUser.getUsername(), savedUser.getEmail());
-    savedUser.setSpoonacularHash(spoonacularHash);
-    userRepository.save(savedUser); // Save again with the hash
+    // Connecting to Spoonacular happens later in SpoonacularConnectWorker - the outbox row commits
+    // (or rolls back) together with the user, so sign-up doesn't wait on or fail with Spoonacular
+    outboxEventRepository.save(
+        new OutboxEvent(OutboxEvent.Type.CONNECT_SPOONACULAR_USER, savedUser.getId()));
 
     String token = jwtUtil.generateToken(savedUser.getUsername());
     return new AuthResponse(savedUser.getUsername(), "User registered successfully", token);
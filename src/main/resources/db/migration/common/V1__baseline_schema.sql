@@ -0,0 +1,52 @@
+-- The schema exactly as ddl-auto=update created it before migrations were introduced. Runs on
+-- PostgreSQL and H2 (tests).
+-- Everything is IF NOT EXISTS so a database that was created by ddl-auto is brought under
+-- Flyway (baseline-version 0) without touching its tables. Anything added since then goes in a
+-- later version with ALTER ... IF NOT EXISTS, so those databases pick it up as well.
+-- Foreign keys are declared inside CREATE TABLE so they are skipped along with the table.
+
+CREATE TABLE IF NOT EXISTS users (
+    id               INTEGER GENERATED BY DEFAULT AS IDENTITY,
+    username         VARCHAR(255) NOT NULL,
+    email            VARCHAR(255) NOT NULL,
+    password         VARCHAR(255) NOT NULL,
+    spoonacular_hash VARCHAR(255),
+    created_at       TIMESTAMP(6),
+    CONSTRAINT pk_users PRIMARY KEY (id),
+    CONSTRAINT uk_users_username UNIQUE (username),
+    CONSTRAINT uk_users_email UNIQUE (email)
+);
+
+CREATE TABLE IF NOT EXISTS recipe (
+    id                INTEGER GENERATED BY DEFAULT AS IDENTITY,
+    name              VARCHAR(100) NOT NULL,
+    description       VARCHAR(255),
+    ingredients_text  TEXT NOT NULL,
+    instructions      TEXT NOT NULL,
+    prep_time_minutes INTEGER,
+    servings          INTEGER,
+    category          VARCHAR(255),
+    source            VARCHAR(255),
+    image_url         VARCHAR(255),
+    spoonacular_id    INTEGER,
+    user_id           INTEGER,
+    CONSTRAINT pk_recipe PRIMARY KEY (id),
+    CONSTRAINT fk_recipe_user FOREIGN KEY (user_id) REFERENCES users (id),
+    CONSTRAINT ck_recipe_category
+        CHECK (category IN ('BREAKFAST', 'LUNCH', 'DINNER', 'DESSERT')),
+    CONSTRAINT ck_recipe_source CHECK (source IN ('USER_CREATED', 'SPOONACULAR'))
+);
+
+CREATE TABLE IF NOT EXISTS ingredient (
+    id   INTEGER GENERATED BY DEFAULT AS IDENTITY,
+    name VARCHAR(255),
+    CONSTRAINT pk_ingredient PRIMARY KEY (id)
+);
+
+CREATE TABLE IF NOT EXISTS recipe_ingredients (
+    recipe_id     INTEGER NOT NULL,
+    ingredient_id INTEGER NOT NULL,
+    CONSTRAINT fk_recipe_ingredients_recipe FOREIGN KEY (recipe_id) REFERENCES recipe (id),
+    CONSTRAINT fk_recipe_ingredients_ingredient
+        FOREIGN KEY (ingredient_id) REFERENCES ingredient (id)
+);
@@ -0,0 +1,5 @@
+-- Recipe and Ingredient ids now come from pooled sequences (allocationSize 50 on the entities).
+-- The old IDENTITY columns stay as they are - explicit ids are still accepted. On PostgreSQL
+-- IdSequenceInitializer moves each sequence past the existing ids at startup
+CREATE SEQUENCE IF NOT EXISTS recipe_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS ingredient_seq START WITH 1 INCREMENT BY 50;
@@ -0,0 +1,4 @@
+-- Optimistic locking / ETag version and Last-Modified time for recipes.
+-- Existing rows start at version 0. On PostgreSQL a constant default doesn't rewrite the table
+ALTER TABLE recipe ADD COLUMN IF NOT EXISTS version BIGINT DEFAULT 0 NOT NULL;
+ALTER TABLE recipe ADD COLUMN IF NOT EXISTS updated_at TIMESTAMP(6) WITH TIME ZONE;
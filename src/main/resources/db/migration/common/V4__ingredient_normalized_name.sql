@@ -0,0 +1,5 @@
+-- Canonical ingredient name, filled in for existing rows by IngredientDictionary at startup.
+-- The unique index is what IngredientDictionary's insert conflict recovery relies on. Rows that
+-- duplicate a name stay NULL, which a unique index allows more than once
+ALTER TABLE ingredient ADD COLUMN IF NOT EXISTS normalized_name VARCHAR(255);
+CREATE UNIQUE INDEX IF NOT EXISTS uk_ingredient_normalized_name ON ingredient (normalized_name);
@@ -0,0 +1,19 @@
+-- Work to do after a commit (see OutboxEvent), drained by SpoonacularConnectWorker
+CREATE TABLE IF NOT EXISTS outbox_event (
+    id              BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    type            VARCHAR(255) NOT NULL,
+    aggregate_id    INTEGER NOT NULL,
+    status          VARCHAR(255) NOT NULL,
+    attempts        INTEGER NOT NULL,
+    next_attempt_at TIMESTAMP(6) NOT NULL,
+    last_error      VARCHAR(1000),
+    created_at      TIMESTAMP(6),
+    processed_at    TIMESTAMP(6),
+    CONSTRAINT pk_outbox_event PRIMARY KEY (id),
+    CONSTRAINT ck_outbox_event_type CHECK (type IN ('CONNECT_SPOONACULAR_USER')),
+    CONSTRAINT ck_outbox_event_status CHECK (status IN ('PENDING', 'DONE', 'FAILED'))
+);
+
+-- declared on OutboxEvent with @Index
+CREATE INDEX IF NOT EXISTS idx_outbox_status_next_attempt
+    ON outbox_event (status, next_attempt_at);
@@ -0,0 +1,2 @@
+-- The name-sorted feed (see postgresql/V10)
+CREATE INDEX IF NOT EXISTS idx_recipe_name_id ON recipe (name, id);
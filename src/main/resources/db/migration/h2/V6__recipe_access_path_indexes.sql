@@ -0,0 +1,24 @@
+-- H2 (tests) counterpart of postgresql/V6 and V7: the same access paths as plain b-tree
+-- indexes, since H2 has no CONCURRENTLY, partial, covering or trigram indexes.
+
+-- findByCategory / findSummariesByCategory, ?category= on /recipes/filter
+CREATE INDEX IF NOT EXISTS idx_recipe_category ON recipe (category);
+
+-- findByPrepTimeMinutesLessThan / Between, min/maxPrepTime on /recipes/filter. The feed never
+-- sorts by prep time, and id only comes along for the ride: a range can't return rows in id order
+CREATE INDEX IF NOT EXISTS idx_recipe_prep_time ON recipe (prep_time_minutes, id);
+
+-- findByServings / findSummariesByServings, ?servings= on /recipes/filter. With servings fixed,
+-- rows come back in id order, which is /recipes/filter's default sort. The feed doesn't use it
+CREATE INDEX IF NOT EXISTS idx_recipe_servings ON recipe (servings, id);
+
+-- findImportedSpoonacularIds and the recipe -> users foreign key
+CREATE INDEX IF NOT EXISTS idx_recipe_user_spoonacular ON recipe (user_id, spoonacular_id);
+
+-- a Spoonacular recipe looked up by its Spoonacular id
+CREATE INDEX IF NOT EXISTS idx_recipe_spoonacular_id ON recipe (spoonacular_id);
+
+CREATE INDEX IF NOT EXISTS idx_recipe_ingredients_recipe
+    ON recipe_ingredients (recipe_id, ingredient_id);
+CREATE INDEX IF NOT EXISTS idx_recipe_ingredients_ingredient
+    ON recipe_ingredients (ingredient_id);
@@ -0,0 +1,2 @@
+-- RecipeIndexRefresher's delta load (see postgresql/V9)
+CREATE INDEX IF NOT EXISTS idx_recipe_updated_at ON recipe (updated_at);
@@ -0,0 +1,3 @@
+-- The name-sorted feed (?sort=name): ORDER BY name, id and the seek (name, id) > (?, ?) are one
+-- range scan on this index. Built CONCURRENTLY outside a transaction, see V6 (and V10__...sql.conf)
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_recipe_name_id ON recipe (name, id);
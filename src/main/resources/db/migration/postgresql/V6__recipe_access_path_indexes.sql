@@ -0,0 +1,30 @@
+-- One index per RecipeRepository access path that used to scan the whole recipe table.
+-- Built CONCURRENTLY so inserts and updates keep going while each index is built. That can't
+-- run inside a transaction, so V6__recipe_access_path_indexes.sql.conf turns Flyway's off.
+-- If a build fails PostgreSQL leaves an INVALID index behind, which IF NOT EXISTS would then
+-- skip - drop it before running `flyway repair` and migrating again.
+-- Category is covered by idx_recipe_category_summary in V7.
+
+-- findByPrepTimeMinutesLessThan / Between, min/maxPrepTime on /recipes/filter. The feed never
+-- sorts by prep time, and id only comes along for the ride: a range can't return rows in id order
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_recipe_prep_time
+    ON recipe (prep_time_minutes, id);
+
+-- findByServings / findSummariesByServings, ?servings= on /recipes/filter. With servings fixed,
+-- rows come back in id order, which is /recipes/filter's default sort. The feed doesn't use it
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_recipe_servings ON recipe (servings, id);
+
+-- findImportedSpoonacularIds (user_id = ? AND spoonacular_id IN ...); also the recipe -> users
+-- foreign key, which PostgreSQL doesn't index by itself
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_recipe_user_spoonacular
+    ON recipe (user_id, spoonacular_id);
+
+-- a Spoonacular recipe looked up by its Spoonacular id
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_recipe_spoonacular_id ON recipe (spoonacular_id);
+
+-- The join table has no primary key. Loading a batch of recipes' ingredients filters on
+-- recipe_id; deleting an ingredient (and the foreign key check) filters on ingredient_id
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_recipe_ingredients_recipe
+    ON recipe_ingredients (recipe_id, ingredient_id);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_recipe_ingredients_ingredient
+    ON recipe_ingredients (ingredient_id);
@@ -0,0 +1,25 @@
+-- Built CONCURRENTLY outside a transaction, see V6 (and V7__...sql.conf).
+
+-- The visibility predicate behind the feed, findPublicAndUserSpoonacularRecipes and
+-- /recipes/filter:
+--   source = 'USER_CREATED' OR (source = 'SPOONACULAR' AND user_id = :userId)
+-- One partial index per side of the OR. PostgreSQL combines them with a BitmapOr, and each
+-- stays small: the Spoonacular one only holds imported rows, keyed by owner.
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_recipe_user_created
+    ON recipe (id) WHERE source = 'USER_CREATED';
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_recipe_spoonacular_by_user
+    ON recipe (user_id, id) WHERE source = 'SPOONACULAR';
+
+-- Category lookups. ?view=summary only needs the summary columns, so they ride along in the
+-- index and PostgreSQL can answer from the index alone
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_recipe_category_summary
+    ON recipe (category, id) INCLUDE (name, image_url, prep_time_minutes, servings);
+
+-- findByNameContainingIgnoreCase / findByIngredientsTextContainingIgnoreCase run
+-- LOWER(col) LIKE '%text%', which a b-tree can't help with. Trigram GIN indexes on the same
+-- expressions can. pg_trgm is a trusted extension, so the database owner can create it
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_recipe_name_trgm
+    ON recipe USING GIN (LOWER(name) gin_trgm_ops);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_recipe_ingredients_text_trgm
+    ON recipe USING GIN (LOWER(ingredients_text) gin_trgm_ops);
@@ -0,0 +1,12 @@
+-- Full-text search over recipes. Used to be a stored generated column added by
+-- FullTextSearchSupport, but adding one rewrites the whole table under an exclusive lock.
+-- An expression index needs no new column and is built CONCURRENTLY (outside a transaction, see
+-- V8__...sql.conf). RecipeRepository.SEARCH_DOCUMENT must stay identical to this expression or
+-- PostgreSQL won't use the index.
+-- Name matches rank above description, then ingredients, then instructions
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_recipe_search_document ON recipe USING GIN ((
+    setweight(to_tsvector('english', coalesce(name, '')), 'A') ||
+    setweight(to_tsvector('english', coalesce(description, '')), 'B') ||
+    setweight(to_tsvector('english', coalesce(ingredients_text, '')), 'C') ||
+    setweight(to_tsvector('english', coalesce(instructions, '')), 'D')
+));
@@ -0,0 +1,3 @@
+-- RecipeIndexRefresher's delta load: updated_at > :since on every instance, every interval.
+-- Built CONCURRENTLY outside a transaction, see V6 (and V9__...sql.conf)
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_recipe_updated_at ON recipe (updated_at);
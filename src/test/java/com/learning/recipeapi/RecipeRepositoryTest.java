@@ -1,19 +1,36 @@
 package com.learning.recipeapi;
 
+import com.learning.recipeapi.dto.RecipeExportRow;
+import com.learning.recipeapi.dto.RecipeFilter;
+import com.learning.recipeapi.dto.RecipeSummary;
+import com.learning.recipeapi.entity.Ingredient;
 import com.learning.recipeapi.entity.Recipe;
+import com.learning.recipeapi.entity.User;
+import com.learning.recipeapi.repository.FeedSort;
 import com.learning.recipeapi.repository.RecipeRepository;
+import com.learning.recipeapi.repository.UserRepository;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 
-@DataJpaTest
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
 public class RecipeRepositoryTest {
   @Autowired private RecipeRepository recipeRepository;
+  @Autowired private UserRepository userRepository;
+  @Autowired private EntityManager entityManager;
 
   // Helper method
   private Recipe createRecipe(
@@ -325,4 +342,245 @@ public class RecipeRepositoryTest {
     List<Recipe> found = recipeRepository.findByPrepTimeMinutesBetween(5, 40);
     assertEquals(2, found.size());
   }
+
+  @Test
+  void testFindFeedPage_SeeksPastCursor() {
+    for (String name : List.of("Apple pie", "Beef curry", "Chicken stew", "Dal", "Eggs")) {
+      Recipe recipe =
+          createRecipe(name, "desc", "ingredients", "instructions", Category.DINNER, 30, 2);
+      recipe.setSource(RecipeSource.USER_CREATED);
+      recipeRepository.save(recipe);
+    }
+
+    List<Recipe> firstPage = recipeRepository.findFeedPage(1, FeedSort.NAME_ASC, null, null, 2);
+    assertEquals(
+        List.of("Apple pie", "Beef curry"), firstPage.stream().map(Recipe::getName).toList());
+
+    Recipe last = firstPage.get(1);
+    List<Recipe> secondPage =
+        recipeRepository.findFeedPage(1, FeedSort.NAME_ASC, last.getName(), last.getId(), 2);
+    assertEquals(List.of("Chicken stew", "Dal"), secondPage.stream().map(Recipe::getName).toList());
+
+    List<Recipe> newest = recipeRepository.findFeedPage(1, FeedSort.NEWEST, null, null, 1);
+    assertEquals("Eggs", newest.get(0).getName());
+  }
+
+  @Test
+  void testFindFeedPage_SeeksThroughEqualNamesById() {
+    List<Integer> ids = new ArrayList<>();
+    for (int i = 0; i < 3; i++) {
+      Recipe recipe =
+          createRecipe("Dal", "desc", "ingredients", "instructions", Category.DINNER, 30, 2);
+      recipe.setSource(RecipeSource.USER_CREATED);
+      ids.add(recipeRepository.save(recipe).getId());
+    }
+
+    List<Recipe> firstPage = recipeRepository.findFeedPage(1, FeedSort.NAME_DESC, null, null, 2);
+    assertEquals(List.of(ids.get(2), ids.get(1)), firstPage.stream().map(Recipe::getId).toList());
+
+    List<Recipe> secondPage =
+        recipeRepository.findFeedPage(1, FeedSort.NAME_DESC, "Dal", ids.get(1), 2);
+    assertEquals(List.of(ids.get(0)), secondPage.stream().map(Recipe::getId).toList());
+  }
+
+  @Test
+  void testStreamExportRows_OnlyVisibleRecipesInIdOrder() {
+    User richard = userRepository.save(new User("richard", "richard@richard.com", "password"));
+    User dave = userRepository.save(new User("dave", "dave@dave.com", "password"));
+
+    Recipe shared = createRecipe("Apple pie", "desc", "apples", "bake", Category.DESSERT, 60, 6);
+    shared.setSource(RecipeSource.USER_CREATED);
+    shared.setUser(dave);
+    Recipe mine = createRecipe("Beef curry", "desc", "beef", "simmer", Category.DINNER, 45, 4);
+    mine.setSource(RecipeSource.SPOONACULAR);
+    mine.setUser(richard);
+    Recipe theirs = createRecipe("Chicken stew", "desc", "chicken", "stew", Category.DINNER, 30, 4);
+    theirs.setSource(RecipeSource.SPOONACULAR);
+    theirs.setUser(dave);
+    Recipe noUser = createRecipe("Dal", "desc", "lentils", "simmer", Category.DINNER, 30, 4);
+    noUser.setSource(RecipeSource.USER_CREATED);
+    recipeRepository.saveAll(List.of(shared, mine, theirs, noUser));
+
+    List<RecipeExportRow> rows;
+    try (Stream<RecipeExportRow> stream = recipeRepository.streamExportRows(richard.getId(), 2)) {
+      rows = stream.toList();
+    }
+
+    assertEquals(
+        List.of("Apple pie", "Beef curry", "Dal"),
+        rows.stream().map(RecipeExportRow::name).toList());
+    assertEquals("dave", rows.get(0).username());
+    assertNull(rows.get(2).username());
+  }
+
+  @Test
+  void testSummaryProjections() {
+    User richard = userRepository.save(new User("richard", "richard@richard.com", "password"));
+    User dave = userRepository.save(new User("dave", "dave@dave.com", "password"));
+
+    Recipe shared = createRecipe("Apple pie", "desc", "apples", "bake", Category.DESSERT, 60, 6);
+    shared.setSource(RecipeSource.USER_CREATED);
+    shared.setImageUrl("https://example.com/pie.jpg");
+    Recipe mine = createRecipe("Beef curry", "desc", "beef", "simmer", Category.DINNER, 45, 4);
+    mine.setSource(RecipeSource.SPOONACULAR);
+    mine.setUser(richard);
+    Recipe theirs = createRecipe("Chicken stew", "desc", "chicken", "stew", Category.DINNER, 20, 4);
+    theirs.setSource(RecipeSource.SPOONACULAR);
+    theirs.setUser(dave);
+    recipeRepository.saveAll(List.of(shared, mine, theirs));
+
+    assertEquals(
+        List.of(
+            new RecipeSummary(
+                shared.getId(),
+                "Apple pie",
+                "https://example.com/pie.jpg",
+                Category.DESSERT,
+                60,
+                6)),
+        recipeRepository.findSummariesByCategory(Category.DESSERT));
+    assertEquals(
+        List.of("Chicken stew"),
+        recipeRepository.findSummariesByPrepTimeMinutesLessThan(30).stream()
+            .map(RecipeSummary::name)
+            .toList());
+    assertEquals(2, recipeRepository.findSummariesByServings(4).size());
+    assertEquals(
+        List.of("Beef curry"),
+        recipeRepository.findSummariesByNameContainingIgnoreCase("CURRY").stream()
+            .map(RecipeSummary::name)
+            .toList());
+    assertEquals(
+        List.of(mine.getId(), theirs.getId()),
+        recipeRepository.findSummariesByIdIn(List.of(theirs.getId(), mine.getId())).stream()
+            .map(RecipeSummary::id)
+            .toList());
+
+    // Same visibility rules as findPublicAndUserSpoonacularRecipes
+    Page<RecipeSummary> page =
+        recipeRepository.findPublicAndUserSpoonacularSummaries(
+            richard.getId(), PageRequest.of(0, 10, Sort.by("name")));
+    assertEquals(2, page.getTotalElements());
+    assertEquals(
+        List.of("Apple pie", "Beef curry"),
+        page.getContent().stream().map(RecipeSummary::name).toList());
+
+    List<RecipeSummary> feed =
+        recipeRepository.findFeedSummaryPage(richard.getId(), FeedSort.NAME_DESC, null, null, 1);
+    assertEquals("Beef curry", feed.get(0).name());
+  }
+
+  @Test
+  void testSummaryContainingQueries_MatchWildcardsLiterally() {
+    recipeRepository.save(
+        createRecipe("50% rye bread", "bread", "rye_flour, water", "bake", Category.LUNCH, 60, 8));
+    recipeRepository.save(
+        createRecipe("500g loaf", "bread", "flour, water", "bake", Category.LUNCH, 60, 8));
+
+    assertEquals(
+        List.of("50% rye bread"),
+        recipeRepository.findSummariesByNameContainingIgnoreCase("50%").stream()
+            .map(RecipeSummary::name)
+            .toList());
+    assertEquals(
+        1, recipeRepository.findSummariesByIngredientsTextContainingIgnoreCase("_").size());
+    // same rows as the full view's derived finders
+    assertEquals(1, recipeRepository.findByNameContainingIgnoreCase("50%").size());
+    assertEquals(1, recipeRepository.findByIngredientsTextContainingIgnoreCase("_").size());
+  }
+
+  @Test
+  void testListQueries_UseFixedNumberOfSelects() {
+    for (int i = 0; i < 10; i++) {
+      User user = userRepository.save(new User("user" + i, "user" + i + "@test.com", "password"));
+      Recipe recipe = createRecipe("Stew " + i, "desc", "beef", "simmer", Category.DINNER, 30, 4);
+      recipe.setSource(RecipeSource.USER_CREATED);
+      recipe.setUser(user);
+      Ingredient ingredient = new Ingredient();
+      ingredient.setName("beef " + i);
+      recipe.getIngredients().add(ingredient);
+      recipeRepository.save(recipe);
+    }
+    entityManager.flush();
+    entityManager.clear();
+
+    Statistics statistics =
+        entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+    statistics.clear();
+
+    List<Recipe> recipes = recipeRepository.findByCategory(Category.DINNER);
+    // what Jackson touches when writing the response
+    recipes.forEach(recipe -> recipe.getIngredients().forEach(Ingredient::getName));
+    recipes.forEach(recipe -> recipe.getUser().getUsername());
+
+    assertEquals(10, recipes.size());
+    // one select for recipes joined to their users, one batch for all the ingredients
+    assertEquals(2, statistics.getPrepareStatementCount());
+
+    entityManager.clear();
+    statistics.clear();
+    Page<Recipe> page =
+        recipeRepository.findPublicAndUserSpoonacularRecipes(
+            recipes.get(0).getUser().getId(), PageRequest.of(0, 5));
+    page.forEach(recipe -> recipe.getIngredients().forEach(Ingredient::getName));
+    page.forEach(recipe -> recipe.getUser().getUsername());
+    assertEquals(5, page.getNumberOfElements());
+    // recipes, count, ingredients
+    assertEquals(3, statistics.getPrepareStatementCount());
+  }
+
+  @Test
+  void testFindFiltered_CombinesCriteriaInOneQuery() {
+    User richard = userRepository.save(new User("richard", "richard@richard.com", "password"));
+    User dave = userRepository.save(new User("dave", "dave@dave.com", "password"));
+
+    Recipe stew =
+        createRecipe("Chicken stew", "desc", "chicken, onions", "stew", Category.DINNER, 40, 4);
+    stew.setSource(RecipeSource.USER_CREATED);
+    Recipe salad =
+        createRecipe("Chicken salad", "desc", "chicken, lettuce", "mix", Category.LUNCH, 15, 2);
+    salad.setSource(RecipeSource.USER_CREATED);
+    Recipe wrap =
+        createRecipe("Chicken wrap", "desc", "chicken, tortilla", "wrap", Category.LUNCH, 10, 1);
+    wrap.setSource(RecipeSource.SPOONACULAR);
+    wrap.setUser(richard);
+    Recipe davesWrap =
+        createRecipe("Chicken wrap", "desc", "chicken, pitta", "wrap", Category.LUNCH, 10, 1);
+    davesWrap.setSource(RecipeSource.SPOONACULAR);
+    davesWrap.setUser(dave);
+    Recipe pie = createRecipe("Apple pie", "desc", "apples", "bake", Category.DESSERT, 60, 6);
+    pie.setSource(RecipeSource.USER_CREATED);
+    recipeRepository.saveAll(List.of(stew, salad, wrap, davesWrap, pie));
+
+    RecipeFilter lunchOrDinnerWithChicken =
+        new RecipeFilter(
+            List.of(Category.LUNCH, Category.DINNER), null, 30, null, null, null, "CHICKEN");
+    Page<Recipe> page =
+        recipeRepository.findFiltered(
+            richard.getId(), lunchOrDinnerWithChicken, PageRequest.of(0, 10, Sort.by("name")));
+
+    // dave's Spoonacular wrap isn't visible to richard, the stew takes too long
+    assertEquals(
+        List.of("Chicken salad", "Chicken wrap"),
+        page.getContent().stream().map(Recipe::getName).toList());
+    assertEquals(wrap.getId(), page.getContent().get(1).getId());
+
+    RecipeFilter userCreated =
+        new RecipeFilter(null, null, null, null, RecipeSource.USER_CREATED, null, null);
+    Page<RecipeSummary> firstPage =
+        recipeRepository.findFilteredSummaries(
+            richard.getId(), userCreated, PageRequest.of(0, 2, Sort.by("prepTimeMinutes")));
+    assertEquals(3, firstPage.getTotalElements());
+    assertEquals(
+        List.of("Chicken salad", "Chicken stew"),
+        firstPage.getContent().stream().map(RecipeSummary::name).toList());
+
+    // LIKE wildcards in the text are matched literally
+    RecipeFilter wildcard = new RecipeFilter(null, null, null, null, null, "%", null);
+    assertEquals(
+        0,
+        recipeRepository
+            .findFiltered(richard.getId(), wildcard, PageRequest.of(0, 10))
+            .getTotalElements());
+  }
 }
@@ -0,0 +1,118 @@
+package com.learning.recipeapi;
+
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.MigrationInfo;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import java.sql.ResultSet;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// The context only starts if Hibernate's ddl-auto=validate accepts the migrated schema, so
+// loading it at all is the drift check. These tests cover what validate doesn't look at
+@DataJpaTest
+public class SchemaMigrationTest {
+  private static final String COLUMNS =
+      "SELECT TABLE_NAME || '.' || COLUMN_NAME || ' ' || DATA_TYPE || ' ' || IS_NULLABLE"
+          + " FROM INFORMATION_SCHEMA.COLUMNS"
+          + " WHERE TABLE_SCHEMA = 'PUBLIC' AND TABLE_NAME <> 'flyway_schema_history'";
+
+  @Autowired private Flyway flyway;
+  @Autowired private JdbcTemplate jdbcTemplate;
+
+  @Test
+  void testMigrations_CommonScriptsAppliedOnH2() {
+    List<String> applied =
+        Arrays.stream(flyway.info().applied()).map(MigrationInfo::getScript).toList();
+
+    assertEquals(
+        List.of(
+            "V1__baseline_schema.sql",
+            "V2__recipe_and_ingredient_id_sequences.sql",
+            "V3__recipe_version_and_updated_at.sql",
+            "V4__ingredient_normalized_name.sql",
+            "V5__outbox_event.sql",
+            "V6__recipe_access_path_indexes.sql",
+            "V9__recipe_updated_at_index.sql",
+            "V10__recipe_name_index.sql"),
+        applied);
+    assertEquals(0, flyway.info().pending().length);
+  }
+
+  @Test
+  void testMigrations_CreateIndexesForRecipeAccessPaths() {
+    Set<String> recipeIndexes = indexNames(jdbcTemplate, "RECIPE");
+
+    assertTrue(recipeIndexes.contains("IDX_RECIPE_CATEGORY"));
+    assertTrue(recipeIndexes.contains("IDX_RECIPE_PREP_TIME"));
+    assertTrue(recipeIndexes.contains("IDX_RECIPE_SERVINGS"));
+    assertTrue(recipeIndexes.contains("IDX_RECIPE_USER_SPOONACULAR"));
+    assertTrue(recipeIndexes.contains("IDX_RECIPE_SPOONACULAR_ID"));
+    assertTrue(recipeIndexes.contains("IDX_RECIPE_NAME_ID"));
+    assertTrue(
+        indexNames(jdbcTemplate, "RECIPE_INGREDIENTS").contains("IDX_RECIPE_INGREDIENTS_RECIPE"));
+  }
+
+  @Test
+  void testMigrations_UpgradeDatabaseCreatedByDdlAuto() {
+    // a database as the app left it before migrations, with a row in it
+    DriverManagerDataSource existing =
+        new DriverManagerDataSource("jdbc:h2:mem:ddl-auto-baseline;DB_CLOSE_DELAY=-1", "sa", "");
+    new ResourceDatabasePopulator(new ClassPathResource("db/baseline-ddl-auto.sql"))
+        .execute(existing);
+    JdbcTemplate existingJdbc = new JdbcTemplate(existing);
+
+    // same settings as the app (baseline-on-migrate, locations), pointed at the old database
+    Flyway.configure()
+        .configuration(flyway.getConfiguration())
+        .dataSource(existing)
+        .load()
+        .migrate();
+
+    // ends up with the same columns as a database built from the migrations alone, which is
+    // the schema validate accepted when this context started
+    assertEquals(
+        new HashSet<>(jdbcTemplate.queryForList(COLUMNS, String.class)),
+        new HashSet<>(existingJdbc.queryForList(COLUMNS, String.class)));
+    assertEquals(
+        0L, existingJdbc.queryForObject("SELECT version FROM recipe", Long.class));
+    assertTrue(indexNames(existingJdbc, "RECIPE").contains("IDX_RECIPE_PREP_TIME"));
+
+    // IngredientDictionary relies on the unique key when two inserts race
+    existingJdbc.update("INSERT INTO ingredient (name, normalized_name) VALUES ('Salt', 'salt')");
+    assertThrows(
+        DataIntegrityViolationException.class,
+        () ->
+            existingJdbc.update(
+                "INSERT INTO ingredient (name, normalized_name) VALUES ('salt', 'salt')"));
+
+    existingJdbc.execute("DROP ALL OBJECTS");
+  }
+
+  private static Set<String> indexNames(JdbcTemplate jdbc, String table) {
+    return jdbc.execute(
+        (ConnectionCallback<Set<String>>)
+            connection -> {
+              Set<String> names = new HashSet<>();
+              try (ResultSet rs =
+                  connection.getMetaData().getIndexInfo(null, null, table, false, false)) {
+                while (rs.next()) {
+                  names.add(rs.getString("INDEX_NAME"));
+                }
+              }
+              return names;
+            });
+  }
+}
@@ -0,0 +1,123 @@
+package com.learning.recipeapi.config;
+
+import com.learning.recipeapi.Category;
+import com.learning.recipeapi.RecipeSource;
+import com.learning.recipeapi.entity.Recipe;
+import com.learning.recipeapi.repository.RecipeRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import({SecondLevelCacheConfig.class, SimpleMeterRegistry.class})
+// The cache only sees committed data, so every repository call here runs in its own transaction
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class SecondLevelCacheConfigTest {
+  @Autowired private RecipeRepository recipeRepository;
+  @Autowired private EntityManagerFactory entityManagerFactory;
+  @Autowired private MeterRegistry meterRegistry;
+
+  private Statistics statistics;
+
+  @BeforeEach
+  void setUp() {
+    statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    entityManagerFactory.getCache().evictAll();
+  }
+
+  @AfterEach
+  void tearDown() {
+    recipeRepository.deleteAll();
+  }
+
+  private Recipe saveRecipe(String name) {
+    Recipe recipe = new Recipe();
+    recipe.setName(name);
+    recipe.setIngredientsText("beef, onions");
+    recipe.setInstructions("simmer");
+    recipe.setCategory(Category.DINNER);
+    recipe.setPrepTimeMinutes(30);
+    recipe.setServings(4);
+    recipe.setSource(RecipeSource.USER_CREATED);
+    return recipeRepository.save(recipe);
+  }
+
+  @Test
+  void testFindById_SecondReadComesFromCache() {
+    Integer id = saveRecipe("Beef stew").getId();
+
+    recipeRepository.findById(id);
+    statistics.clear();
+
+    Recipe cached = recipeRepository.findById(id).orElseThrow();
+
+    assertEquals("Beef stew", cached.getName());
+    assertEquals(0, statistics.getPrepareStatementCount());
+    assertEquals(1, statistics.getDomainDataRegionStatistics("recipe").getHitCount());
+    assertTrue(
+        meterRegistry
+                .get("cache.gets")
+                .tag("cache", "recipe")
+                .tag("result", "hit")
+                .functionCounter()
+                .count()
+            >= 1);
+  }
+
+  @Test
+  void testFindByCategory_UsesQueryCacheUntilRecipeTableChanges() {
+    saveRecipe("Beef stew");
+
+    recipeRepository.findByCategory(Category.DINNER);
+    statistics.clear();
+
+    assertEquals(1, recipeRepository.findByCategory(Category.DINNER).size());
+    assertEquals(1, statistics.getQueryCacheHitCount());
+    assertEquals(0, statistics.getPrepareStatementCount());
+
+    // any write to the recipe table invalidates the cached result
+    saveRecipe("Beef curry");
+    statistics.clear();
+
+    List<Recipe> recipes = recipeRepository.findByCategory(Category.DINNER);
+    assertEquals(2, recipes.size());
+    assertEquals(0, statistics.getQueryCacheHitCount());
+  }
+
+  @Test
+  void testFreeTextFinder_IsNotQueryCached() {
+    saveRecipe("Beef stew");
+
+    recipeRepository.findByNameContainingIgnoreCase("stew");
+    statistics.clear();
+
+    assertEquals(1, recipeRepository.findByNameContainingIgnoreCase("stew").size());
+    assertEquals(0, statistics.getQueryCachePutCount() + statistics.getQueryCacheHitCount());
+  }
+
+  @Test
+  void testUpdate_IsNotServedStale() {
+    Recipe saved = saveRecipe("Beef stew");
+    Recipe update = recipeRepository.findById(saved.getId()).orElseThrow();
+
+    update.setName("Beef and ale stew");
+    recipeRepository.save(update);
+
+    assertEquals(
+        "Beef and ale stew", recipeRepository.findById(saved.getId()).orElseThrow().getName());
+  }
+}
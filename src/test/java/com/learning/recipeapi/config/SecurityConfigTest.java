@@ -0,0 +1,71 @@
+package com.learning.recipeapi.config;
+
+import com.learning.recipeapi.entity.User;
+import com.learning.recipeapi.repository.UserRepository;
+import com.learning.recipeapi.security.JwtUtil;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "security.admin-usernames=ops")
+@AutoConfigureMockMvc
+public class SecurityConfigTest {
+  @Autowired private MockMvc mockMvc;
+  @Autowired private UserRepository userRepository;
+  @Autowired private JwtUtil jwtUtil;
+
+  @BeforeEach
+  void setUp() {
+    userRepository.save(new User("ops", "ops@ops.com", "password"));
+    userRepository.save(new User("richard", "richard@richard.com", "password"));
+  }
+
+  @AfterEach
+  void tearDown() {
+    userRepository.deleteAll();
+  }
+
+  private String bearer(String username) {
+    return "Bearer " + jwtUtil.generateToken(username);
+  }
+
+  @Test
+  void testActuator_RegisteredUserCanOnlySeeHealth() throws Exception {
+    mockMvc
+        .perform(get("/actuator/health").header("Authorization", bearer("richard")))
+        .andExpect(status().isOk());
+    mockMvc
+        .perform(get("/actuator/metrics").header("Authorization", bearer("richard")))
+        .andExpect(status().isForbidden());
+    mockMvc
+        .perform(
+            post("/actuator/diagnostics/request")
+                .header("Authorization", bearer("richard"))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"sampleEvery\": 1}"))
+        .andExpect(status().isForbidden());
+  }
+
+  @Test
+  void testActuator_AdminCanChangeDiagnostics() throws Exception {
+    mockMvc
+        .perform(
+            post("/actuator/diagnostics/request")
+                .header("Authorization", bearer("ops"))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"sampleEvery\": 0}"))
+        .andExpect(status().isOk());
+    mockMvc
+        .perform(get("/actuator/metrics").header("Authorization", bearer("ops")))
+        .andExpect(status().isOk());
+  }
+}
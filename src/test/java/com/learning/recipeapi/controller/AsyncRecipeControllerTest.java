@@ -0,0 +1,53 @@
+package com.learning.recipeapi.controller;
+
+import com.learning.recipeapi.entity.Recipe;
+import com.learning.recipeapi.service.RecipeService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc(addFilters = false)
+public class AsyncRecipeControllerTest {
+
+  @Autowired private MockMvc mockMvc;
+
+  @MockitoBean private RecipeService recipeService;
+
+  @Test
+  public void testSearchRecipesAsync_NameAndIngredientMatchSummaryView() throws Exception {
+    Recipe recipe = new Recipe();
+    recipe.setId(1);
+    recipe.setName("Carrot Cake");
+    when(recipeService.getRecipesByNameAsync("cake"))
+        .thenReturn(CompletableFuture.completedFuture(List.of(recipe)));
+    when(recipeService.getRecipeByIngredientAsync("carrot"))
+        .thenReturn(CompletableFuture.completedFuture(List.of(recipe)));
+
+    MvcResult byName =
+        mockMvc.perform(get("/async/recipes/search").param("name", "cake")).andReturn();
+    mockMvc
+        .perform(asyncDispatch(byName))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$[0].name").value("Carrot Cake"));
+
+    MvcResult byIngredient =
+        mockMvc.perform(get("/async/recipes/search").param("ingredient", "carrot")).andReturn();
+    mockMvc.perform(asyncDispatch(byIngredient)).andExpect(status().isOk());
+
+    // the same searches as ?view=summary runs
+    verify(recipeService).getRecipesByNameAsync("cake");
+    verify(recipeService).getRecipeByIngredientAsync("carrot");
+  }
+}
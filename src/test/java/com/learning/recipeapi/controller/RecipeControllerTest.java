@@ -1,7 +1,12 @@
 package com.learning.recipeapi.controller;
 
+import com.learning.recipeapi.RecipeSource;
+import com.learning.recipeapi.dto.RecipeFilter;
+import com.learning.recipeapi.dto.RecipeSummary;
 import com.learning.recipeapi.entity.Recipe;
 import com.learning.recipeapi.Category;
+import com.learning.recipeapi.search.MatchMode;
+import com.learning.recipeapi.service.RecipeRenderCache;
 import com.learning.recipeapi.service.RecipeService;
 import com.learning.recipeapi.exception.RecipeNotFoundException;
 import com.learning.recipeapi.exception.DuplicateRecipeException;
@@ -14,6 +19,15 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
 
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.function.BiPredicate;
+
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -28,6 +42,26 @@ public class RecipeControllerTest {
 
   @Autowired private ObjectMapper objectMapper;
 
+  // what RecipeService would hand the controller for this recipe: rendered, unless the request's
+  // validators say the client's copy is current
+  private void mockRenderedRecipe(Recipe recipe) throws Exception {
+    RecipeRenderCache.RenderedRecipe rendered =
+        new RecipeRenderCache.RenderedRecipe(
+            recipe.getId(),
+            recipe.getVersion(),
+            recipe.getUpdatedAt(),
+            objectMapper.writeValueAsBytes(recipe),
+            null);
+    when(recipeService.getRenderedRecipe(eq(recipe.getId()), any()))
+        .thenAnswer(
+            invocation -> {
+              BiPredicate<Long, Instant> isCurrent = invocation.getArgument(1);
+              return isCurrent.test(recipe.getVersion(), recipe.getUpdatedAt())
+                  ? RecipeRenderCache.RenderedRecipe.notRendered(recipe)
+                  : rendered;
+            });
+  }
+
   @Test
   public void testGetRecipeById_Success() throws Exception {
 
@@ -42,7 +76,7 @@ public class RecipeControllerTest {
     recipe.setCategory(Category.BREAKFAST);
 
     // Mock - tell service what to return
-    when(recipeService.getRecipeById(1)).thenReturn(recipe);
+    mockRenderedRecipe(recipe);
     // Perform get request and verify response
     mockMvc
         .perform(get("/recipes/1"))
@@ -55,13 +89,13 @@ public class RecipeControllerTest {
         .andExpect(jsonPath("$.servings").value(4))
         .andExpect(jsonPath("$.category").value("BREAKFAST"));
 
-    verify(recipeService, times(1)).getRecipeById(1);
+    verify(recipeService, times(1)).getRenderedRecipe(eq(1), any());
   }
 
   @Test
   public void testRecipeById_NotFound() throws Exception {
     // arrange
-    when(recipeService.getRecipeById(1))
+    when(recipeService.getRenderedRecipe(eq(1), any()))
         .thenThrow(new RecipeNotFoundException("Recipe not found with id 1"));
 
     // Act and assert
@@ -73,7 +107,7 @@ public class RecipeControllerTest {
         .andExpect(jsonPath("$.status").value(404));
 
     // Verify -check the service method was indeed called
-    verify(recipeService, times(1)).getRecipeById(1);
+    verify(recipeService, times(1)).getRenderedRecipe(eq(1), any());
   }
 
   @Test
@@ -192,7 +226,7 @@ public class RecipeControllerTest {
     updatedRecipe.setCategory(Category.BREAKFAST);
 
     // mock - tell service what to return
-    when(recipeService.updateRecipe(eq(1), any(Recipe.class))).thenReturn(updatedRecipe);
+    when(recipeService.updateRecipe(eq(1), any(Recipe.class), isNull())).thenReturn(updatedRecipe);
 
     // act and assert
     mockMvc
@@ -210,7 +244,7 @@ public class RecipeControllerTest {
         .andExpect(jsonPath("$.category").value("BREAKFAST"));
 
     // verify
-    verify(recipeService, times(1)).updateRecipe(eq(1), any(Recipe.class));
+    verify(recipeService, times(1)).updateRecipe(eq(1), any(Recipe.class), isNull());
   }
 
   @Test
@@ -487,4 +521,164 @@ public class RecipeControllerTest {
     // verify
     verify(recipeService, never()).createRecipe(any(Recipe.class));
   }
+
+  @Test
+  public void testSearchRecipe_MultipleIngredients() throws Exception {
+    Recipe recipe = new Recipe();
+    recipe.setId(3);
+    recipe.setName("Garlic Chicken");
+    recipe.setIngredientsText("Chicken, Garlic");
+    recipe.setInstructions("Test instructions");
+
+    when(recipeService.getRecipesByIngredients(
+            List.of("chicken", "garlic"), MatchMode.ANY))
+        .thenReturn(List.of(recipe));
+
+    mockMvc
+        .perform(
+            get("/recipes/search")
+                .param("ingredient", "chicken", "garlic")
+                .param("mode", "any"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$[0].id").value(3))
+        .andExpect(jsonPath("$[0].name").value("Garlic Chicken"));
+
+    verify(recipeService, times(1))
+        .getRecipesByIngredients(List.of("chicken", "garlic"), MatchMode.ANY);
+    verify(recipeService, never()).getRecipeByIngredient(anyString());
+  }
+
+  @Test
+  public void testSearchRecipe_SingleIngredientWithCommaIsOneTerm() throws Exception {
+    when(recipeService.getRecipeByIngredient("salt, pepper")).thenReturn(List.of());
+
+    mockMvc
+        .perform(get("/recipes/search").param("ingredient", "salt, pepper"))
+        .andExpect(status().isOk());
+
+    verify(recipeService, times(1)).getRecipeByIngredient("salt, pepper");
+    verify(recipeService, never()).getRecipesByIngredients(any(), any());
+  }
+
+  @Test
+  public void testGetRecipesByCategory_SummaryView() throws Exception {
+    RecipeSummary summary =
+        new RecipeSummary(
+            4, "Pancakes", "https://example.com/pancakes.jpg", Category.BREAKFAST, 15, 2);
+
+    when(recipeService.getRecipeSummariesByCategory(Category.BREAKFAST))
+        .thenReturn(List.of(summary));
+
+    mockMvc
+        .perform(get("/recipes/category/breakfast").param("view", "summary"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$[0].name").value("Pancakes"))
+        .andExpect(jsonPath("$[0].prepTimeMinutes").value(15))
+        .andExpect(jsonPath("$[0].instructions").doesNotExist());
+
+    verify(recipeService, never()).getRecipeByCategory(any());
+  }
+
+  @Test
+  public void testGetRecipeById_NotModifiedWhenETagMatches() throws Exception {
+    Recipe recipe = new Recipe();
+    recipe.setId(1);
+    recipe.setName("Test Recipe");
+    recipe.setVersion(3L);
+    recipe.setUpdatedAt(Instant.parse("2025-01-01T10:00:00Z"));
+
+    mockRenderedRecipe(recipe);
+
+    mockMvc
+        .perform(get("/recipes/1"))
+        .andExpect(status().isOk())
+        .andExpect(header().string("ETag", "\"3\""))
+        .andExpect(header().string("Last-Modified", "Wed, 01 Jan 2025 10:00:00 GMT"));
+
+    mockMvc
+        .perform(get("/recipes/1").header("If-None-Match", "\"3\""))
+        .andExpect(status().isNotModified())
+        .andExpect(content().string(""));
+
+    mockMvc
+        .perform(get("/recipes/1").header("If-None-Match", "\"2\""))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.name").value("Test Recipe"));
+
+    // the gzipped copy's tag names the same version
+    mockMvc
+        .perform(get("/recipes/1").header("If-None-Match", "\"3-gzip\""))
+        .andExpect(status().isNotModified())
+        .andExpect(header().string("ETag", "\"3-gzip\""));
+
+    mockMvc
+        .perform(
+            get("/recipes/1").header("If-Modified-Since", "Wed, 01 Jan 2025 10:00:00 GMT"))
+        .andExpect(status().isNotModified());
+  }
+
+  @Test
+  public void testUpdateRecipe_PassesIfMatchVersions() throws Exception {
+    Recipe updateRecipe = new Recipe();
+    updateRecipe.setName("Test Recipe");
+    updateRecipe.setIngredientsText("Test ingredients");
+    updateRecipe.setInstructions("Test instructions");
+    updateRecipe.setPrepTimeMinutes(30);
+    updateRecipe.setServings(4);
+
+    Recipe updatedRecipe = new Recipe();
+    updatedRecipe.setId(1);
+    updatedRecipe.setName("Test Recipe");
+    updatedRecipe.setVersion(4L);
+
+    when(recipeService.updateRecipe(eq(1), any(Recipe.class), eq(List.of(3L))))
+        .thenReturn(updatedRecipe);
+
+    mockMvc
+        .perform(
+            put("/recipes/1")
+                .header("If-Match", "\"3\", W/\"2\"")
+                .contentType("application/json")
+                .content(objectMapper.writeValueAsString(updateRecipe)))
+        .andExpect(status().isOk())
+        .andExpect(header().string("ETag", "\"4\""));
+  }
+
+  @Test
+  public void testFilterRecipes_BindsAllCriteria() throws Exception {
+    RecipeFilter expected =
+        new RecipeFilter(
+            List.of(Category.LUNCH, Category.DINNER),
+            10,
+            30,
+            2,
+            RecipeSource.USER_CREATED,
+            "salad",
+            "chicken");
+    Pageable pageable = PageRequest.of(1, 5, Sort.by("name"));
+    RecipeSummary summary =
+        new RecipeSummary(7, "Chicken salad", null, Category.LUNCH, 15, 2);
+
+    when(recipeService.filterRecipeSummaries(expected, pageable))
+        .thenReturn(new PageImpl<>(List.of(summary), pageable, 6));
+
+    mockMvc
+        .perform(
+            get("/recipes/filter")
+                .param("category", "lunch", "dinner")
+                .param("minPrepTime", "10")
+                .param("maxPrepTime", "30")
+                .param("servings", "2")
+                .param("source", "user_created")
+                .param("name", "salad")
+                .param("ingredient", "chicken")
+                .param("page", "1")
+                .param("size", "5")
+                .param("sort", "name")
+                .param("view", "summary"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.content[0].name").value("Chicken salad"));
+
+    verify(recipeService, times(1)).filterRecipeSummaries(expected, pageable);
+  }
 }
@@ -0,0 +1,48 @@
+package com.learning.recipeapi.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RecipeETagTest {
+
+  @Test
+  void testAcceptsGzip_ReadsCodingsAndQValues() {
+    assertTrue(RecipeETag.acceptsGzip("gzip"));
+    assertTrue(RecipeETag.acceptsGzip("br;q=1.0, GZIP;q=0.5"));
+    assertTrue(RecipeETag.acceptsGzip("*"));
+
+    assertFalse(RecipeETag.acceptsGzip(null));
+    assertFalse(RecipeETag.acceptsGzip("gzip;q=0"));
+    assertFalse(RecipeETag.acceptsGzip("x-gzip, deflate"));
+    assertFalse(RecipeETag.acceptsGzip("identity"));
+    // an explicit gzip entry overrides the wildcard
+    assertFalse(RecipeETag.acceptsGzip("gzip;q=0, *"));
+    assertFalse(RecipeETag.acceptsGzip("gzip;q=abc"));
+  }
+
+  @Test
+  void testParseIfMatch_AcceptsGzipVariantOfTag() {
+    assertEquals(List.of(3L, 4L), RecipeETag.parseIfMatch("\"3\", \"4-gzip\""));
+    assertNull(RecipeETag.parseIfMatch("*"));
+  }
+
+  @Test
+  void testIsCurrent_ComparesIfNoneMatchBeforeIfModifiedSince() {
+    Instant updatedAt = Instant.parse("2025-01-01T10:00:00.500Z");
+    HttpHeaders headers = new HttpHeaders();
+    headers.set(HttpHeaders.IF_NONE_MATCH, "\"2\", W/\"3-gzip\"");
+    headers.setIfModifiedSince(updatedAt.plusSeconds(60));
+
+    assertTrue(RecipeETag.isCurrent(headers).test(3L, updatedAt));
+    assertFalse(RecipeETag.isCurrent(headers).test(4L, updatedAt));
+
+    headers.remove(HttpHeaders.IF_NONE_MATCH);
+    assertTrue(RecipeETag.isCurrent(headers).test(4L, updatedAt));
+    assertFalse(RecipeETag.isCurrent(new HttpHeaders()).test(4L, updatedAt));
+  }
+}
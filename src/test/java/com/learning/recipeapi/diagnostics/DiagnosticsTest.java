@@ -0,0 +1,54 @@
+package com.learning.recipeapi.diagnostics;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DiagnosticsTest {
+
+  @Test
+  void testRecord_DisabledCategoryIsIgnored() {
+    Diagnostics diagnostics = new Diagnostics(10);
+
+    diagnostics.record(DiagnosticCategory.AUTH, "Authenticated {}", "richard");
+
+    assertFalse(diagnostics.isEnabled(DiagnosticCategory.AUTH));
+    assertEquals(0, diagnostics.getPendingCount());
+  }
+
+  @Test
+  void testRecord_EnabledCategoryIsBufferedAndFlushed() {
+    Diagnostics diagnostics = new Diagnostics(10);
+    diagnostics.setSampleEvery(DiagnosticCategory.AUTH, 1);
+
+    diagnostics.record(DiagnosticCategory.AUTH, "Authenticated {}", "richard");
+    diagnostics.record(DiagnosticCategory.AUTH, "Authenticated {}", "dave");
+
+    assertEquals(2, diagnostics.getPendingCount());
+    assertEquals(2, diagnostics.flush());
+    assertEquals(0, diagnostics.getPendingCount());
+  }
+
+  @Test
+  void testRecord_FullBufferDropsInsteadOfBlocking() {
+    Diagnostics diagnostics = new Diagnostics(2);
+    diagnostics.setSampleEvery(DiagnosticCategory.ACCESS_DENIED, 1);
+
+    for (int i = 0; i < 5; i++) {
+      diagnostics.record(DiagnosticCategory.ACCESS_DENIED, "Access denied");
+    }
+
+    assertEquals(2, diagnostics.getPendingCount());
+    assertEquals(3, diagnostics.getDroppedCount());
+  }
+
+  @Test
+  void testSetSampleEvery_RuntimeChange() {
+    Diagnostics diagnostics = new Diagnostics(10);
+    diagnostics.setSampleEvery(DiagnosticCategory.REQUEST, 100);
+    assertEquals(100, diagnostics.getSampleEvery(DiagnosticCategory.REQUEST));
+
+    diagnostics.setSampleEvery(DiagnosticCategory.REQUEST, 0);
+    assertFalse(diagnostics.isEnabled(DiagnosticCategory.REQUEST));
+  }
+}
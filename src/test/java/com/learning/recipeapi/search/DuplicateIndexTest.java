@@ -0,0 +1,114 @@
+package com.learning.recipeapi.search;
+
+import com.learning.recipeapi.RecipeSource;
+import com.learning.recipeapi.dto.DuplicateCluster;
+import com.learning.recipeapi.dto.RecipeNameEntry;
+import com.learning.recipeapi.dto.RecipeTextEntry;
+import com.learning.recipeapi.repository.RecipeRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class DuplicateIndexTest {
+
+  private static final String CARROT_CAKE =
+      "grated carrots, flour, sugar, eggs, vegetable oil, cinnamon, baking soda, walnuts,"
+          + " cream cheese";
+
+  private RecipeRepository recipeRepository;
+  private DuplicateIndex index;
+
+  @BeforeEach
+  void setUp() {
+    recipeRepository = mock(RecipeRepository.class);
+    when(recipeRepository.findAllTextEntries())
+        .thenReturn(
+            List.of(
+                new RecipeTextEntry(1, "Carrot Cake", CARROT_CAKE, RecipeSource.USER_CREATED, 10),
+                new RecipeTextEntry(2, "Carrot cake!", CARROT_CAKE, RecipeSource.USER_CREATED, 11),
+                new RecipeTextEntry(
+                    3, "Cake", "flour, sugar, eggs, butter, milk", RecipeSource.USER_CREATED, 10),
+                new RecipeTextEntry(
+                    4, "Chicken Curry", "chicken, onion, garlic, curry powder, coconut milk",
+                    RecipeSource.USER_CREATED, 10),
+                new RecipeTextEntry(5, "Carrot Cake", CARROT_CAKE, RecipeSource.SPOONACULAR, 99)));
+    index = new DuplicateIndex(recipeRepository, 0.8, 16, 8, 200, Duration.ofMinutes(5));
+    index.load();
+  }
+
+  @Test
+  void testFindSimilar_MatchesNearDuplicateOnly() {
+    assertTrue(index.isReady());
+    assertEquals(
+        List.of(1, 2),
+        index.findSimilar("carrot cakes", CARROT_CAKE, 10).stream().sorted().toList());
+    assertEquals(List.of(), index.findSimilar("Cake", "chocolate, flour, sugar, cocoa", 10));
+  }
+
+  @Test
+  void testFindSimilar_OnlyMatchesRecipesVisibleToUser() {
+    // recipe 5 is user 99's Spoonacular import - nobody else sees it, so it can't block them
+    assertFalse(index.findSimilar("Carrot Cake", CARROT_CAKE, 10).contains(5));
+    assertTrue(index.findSimilar("Carrot Cake", CARROT_CAKE, 99).contains(5));
+  }
+
+  @Test
+  void testFindSimilar_ShortNameDoesNotBlockLongerOne() {
+    // "Cake" used to block "Carrot Cake" through the name LIKE check
+    assertFalse(index.findSimilar("Cake", CARROT_CAKE, 10).contains(3));
+  }
+
+  @Test
+  void testClusters_GroupsDuplicatesVisibleToUser() {
+    List<DuplicateCluster> clusters = index.clusters(10, 10);
+
+    assertEquals(1, clusters.size());
+    assertEquals(
+        List.of(new RecipeNameEntry(1, "Carrot Cake"), new RecipeNameEntry(2, "Carrot cake!")),
+        clusters.get(0).recipes());
+
+    // user 99 also sees their own Spoonacular import
+    assertEquals(3, index.clusters(99, 10).get(0).recipes().size());
+  }
+
+  @Test
+  void testClusters_ReusesPairsUntilRefreshInterval() {
+    assertEquals(2, index.clusters(10, 10).get(0).recipes().size());
+    index.put(6, "Carrot Cake", CARROT_CAKE, null);
+
+    // still within the refresh interval - the new recipe is matched but not yet clustered
+    assertEquals(2, index.clusters(10, 10).get(0).recipes().size());
+    assertTrue(index.findSimilar("Carrot Cake", CARROT_CAKE, 10).contains(6));
+
+    DuplicateIndex alwaysRefreshed =
+        new DuplicateIndex(recipeRepository, 0.8, 16, 8, 200, Duration.ZERO);
+    alwaysRefreshed.load();
+    alwaysRefreshed.clusters(10, 10);
+    alwaysRefreshed.put(6, "Carrot Cake", CARROT_CAKE, null);
+    assertEquals(3, alwaysRefreshed.clusters(10, 10).get(0).recipes().size());
+  }
+
+  @Test
+  void testClusters_OnlyComparesUpToMaxBucketSize() {
+    // one recipe per bucket leaves nothing to compare
+    DuplicateIndex capped = new DuplicateIndex(recipeRepository, 0.8, 16, 8, 1, Duration.ZERO);
+    capped.load();
+
+    assertTrue(capped.clusters(10, 10).isEmpty());
+    assertEquals(1, capped.findSimilar("Carrot Cake", CARROT_CAKE, 99).size());
+  }
+
+  @Test
+  void testRemove_DropsRecipeFromLookups() {
+    index.remove(2);
+    index.remove(5);
+
+    assertEquals(List.of(1), index.findSimilar("Carrot Cake", CARROT_CAKE, 10));
+    assertTrue(index.clusters(10, 10).isEmpty());
+  }
+}
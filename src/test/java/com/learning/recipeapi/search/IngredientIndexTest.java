@@ -0,0 +1,59 @@
+package com.learning.recipeapi.search;
+
+import com.learning.recipeapi.dto.RecipeIngredientsEntry;
+import com.learning.recipeapi.repository.RecipeRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class IngredientIndexTest {
+
+  private IngredientIndex index;
+
+  @BeforeEach
+  void setUp() {
+    RecipeRepository recipeRepository = mock(RecipeRepository.class);
+    when(recipeRepository.findAllIngredientsEntries())
+        .thenReturn(
+            List.of(
+                new RecipeIngredientsEntry(
+                    1, "2 chicken breasts, 3 cloves garlic, 1 tbsp olive oil"),
+                new RecipeIngredientsEntry(2, "1 cup rice, 1 chicken stock cube"),
+                new RecipeIngredientsEntry(3, "4 tomatoes, garlic, basil"),
+                new RecipeIngredientsEntry(4, "2 eggs, 100g flour, milk")));
+    index = new IngredientIndex(recipeRepository);
+    index.load();
+  }
+
+  @Test
+  void testSearch_All() {
+    assertEquals(List.of(1), index.search(List.of("chicken", "garlic"), MatchMode.ALL));
+    assertEquals(List.of(), index.search(List.of("chicken", "basil"), MatchMode.ALL));
+  }
+
+  @Test
+  void testSearch_Any() {
+    assertEquals(List.of(1, 2, 3), index.search(List.of("chicken", "garlic"), MatchMode.ANY));
+  }
+
+  @Test
+  void testSearch_MultiWordIngredientAndPlurals() {
+    assertEquals(List.of(1), index.search(List.of("Olive Oil"), MatchMode.ALL));
+    assertEquals(List.of(3), index.search(List.of("tomato"), MatchMode.ALL));
+    assertEquals(List.of(4), index.search(List.of("egg"), MatchMode.ALL));
+  }
+
+  @Test
+  void testPutAndRemove() {
+    index.put(2, "1 cup rice, garlic");
+    assertEquals(List.of(1), index.search(List.of("chicken"), MatchMode.ALL));
+    assertEquals(List.of(1, 2, 3), index.search(List.of("garlic"), MatchMode.ALL));
+
+    index.remove(1);
+    assertEquals(List.of(2, 3), index.search(List.of("garlic"), MatchMode.ALL));
+  }
+}
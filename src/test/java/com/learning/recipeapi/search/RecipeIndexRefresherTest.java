@@ -0,0 +1,94 @@
+package com.learning.recipeapi.search;
+
+import com.learning.recipeapi.RecipeSource;
+import com.learning.recipeapi.dto.RecipeIngredientsEntry;
+import com.learning.recipeapi.dto.RecipeNameEntry;
+import com.learning.recipeapi.dto.RecipeTextEntry;
+import com.learning.recipeapi.repository.RecipeRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+public class RecipeIndexRefresherTest {
+
+  private RecipeRepository recipeRepository;
+  private RecipeNameIndex nameIndex;
+  private IngredientIndex ingredientIndex;
+  private DuplicateIndex duplicateIndex;
+  private RecipeIndexRefresher refresher;
+
+  @BeforeEach
+  void setUp() {
+    recipeRepository = mock(RecipeRepository.class);
+    when(recipeRepository.findAllNameEntries())
+        .thenReturn(
+            List.of(new RecipeNameEntry(1, "Carrot Cake"), new RecipeNameEntry(2, "Beef Stew")));
+    when(recipeRepository.findAllIngredientsEntries())
+        .thenReturn(
+            List.of(
+                new RecipeIngredientsEntry(1, "carrots, flour"),
+                new RecipeIngredientsEntry(2, "beef, onions")));
+    when(recipeRepository.findAllTextEntries()).thenReturn(List.of());
+
+    nameIndex = new RecipeNameIndex(recipeRepository);
+    ingredientIndex = new IngredientIndex(recipeRepository);
+    duplicateIndex = new DuplicateIndex(recipeRepository, 0.8, 16, 8, 200, Duration.ZERO);
+    refresher =
+        new RecipeIndexRefresher(
+            recipeRepository, nameIndex, ingredientIndex, duplicateIndex, Duration.ofMinutes(10));
+    nameIndex.load();
+    ingredientIndex.load();
+    duplicateIndex.load();
+  }
+
+  @Test
+  void testApplyChanges_IndexesRecipesWrittenElsewhere() {
+    // recipe 2 renamed and recipe 3 created through another instance
+    when(recipeRepository.findTextEntriesUpdatedSince(any(Instant.class)))
+        .thenReturn(
+            List.of(
+                new RecipeTextEntry(
+                    2, "Beef Casserole", "beef, carrots", RecipeSource.USER_CREATED, 1),
+                new RecipeTextEntry(
+                    3, "Carrot Soup", "carrots, stock", RecipeSource.USER_CREATED, 1)));
+
+    assertEquals(2, refresher.applyChanges());
+
+    assertEquals(List.of(), nameIndex.search("stew"));
+    assertEquals(List.of(3), nameIndex.search("soup"));
+    assertEquals(List.of(1, 2, 3), ingredientIndex.search(List.of("carrot"), MatchMode.ALL));
+    assertEquals(List.of(3), duplicateIndex.findSimilar("Carrot Soup", "carrots, stock", 1));
+  }
+
+  @Test
+  void testApplyChanges_NextRunStartsFromLastRun() {
+    when(recipeRepository.findTextEntriesUpdatedSince(any(Instant.class))).thenReturn(List.of());
+    Instant beforeFirst = Instant.now();
+
+    refresher.applyChanges();
+    refresher.applyChanges();
+
+    verify(recipeRepository, times(2))
+        .findTextEntriesUpdatedSince(
+            argThat(since -> since.isAfter(beforeFirst.minus(Duration.ofMinutes(2)))));
+  }
+
+  @Test
+  void testRemoveDeleted_DropsRecipesMissingFromTable() {
+    // recipe 1 deleted through another instance
+    when(recipeRepository.findAllIds()).thenReturn(List.of(2));
+
+    assertEquals(1, refresher.removeDeleted());
+
+    assertEquals(List.of(), nameIndex.search("carrot"));
+    assertEquals(List.of(), ingredientIndex.search(List.of("flour"), MatchMode.ALL));
+    assertEquals(1, nameIndex.size());
+  }
+}
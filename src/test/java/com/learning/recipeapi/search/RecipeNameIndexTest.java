@@ -0,0 +1,67 @@
+package com.learning.recipeapi.search;
+
+import com.learning.recipeapi.dto.RecipeNameEntry;
+import com.learning.recipeapi.repository.RecipeRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class RecipeNameIndexTest {
+
+  private RecipeNameIndex index;
+
+  @BeforeEach
+  void setUp() {
+    RecipeRepository recipeRepository = mock(RecipeRepository.class);
+    when(recipeRepository.findAllNameEntries())
+        .thenReturn(
+            List.of(
+                new RecipeNameEntry(1, "Carrot Cake"),
+                new RecipeNameEntry(2, "Chocolate Cake"),
+                new RecipeNameEntry(3, "Pancakes"),
+                new RecipeNameEntry(4, "Chicken Curry")));
+    index = new RecipeNameIndex(recipeRepository);
+    index.load();
+  }
+
+  @Test
+  void testSearch_CaseInsensitiveSubstring() {
+    assertTrue(index.isReady());
+    assertEquals(List.of(1, 2, 3), index.search("CAKE"));
+    assertEquals(List.of(4), index.search("ken cu"));
+  }
+
+  @Test
+  void testSearch_ShortQueryScansNames() {
+    assertEquals(List.of(1, 2, 3), index.search("ca"));
+    assertEquals(List.of(1, 2, 3, 4), index.search(""));
+  }
+
+  @Test
+  void testSearch_TrigramsPresentButNotContiguous() {
+    // "cake" and "carr" share trigrams with "car cake" but the phrase itself is not in any name
+    assertEquals(List.of(), index.search("car cake"));
+  }
+
+  @Test
+  void testPutAndRemove() {
+    index.put(1, "Lemon Tart");
+    assertEquals(List.of(2, 3), index.search("cake"));
+    assertEquals(List.of(1), index.search("lemon"));
+
+    index.remove(2);
+    assertEquals(List.of(3), index.search("cake"));
+    assertEquals(3, index.size());
+  }
+
+  @Test
+  void testSearch_StopsAtLimit() {
+    assertEquals(List.of(1, 2), index.search("cake", 2));
+    assertEquals(List.of(1), index.search("c", 1));
+    assertEquals(List.of(1, 2, 3, 4), index.ids().stream().boxed().toList());
+  }
+}
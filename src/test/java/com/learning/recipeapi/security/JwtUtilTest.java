@@ -0,0 +1,59 @@
+package com.learning.recipeapi.security;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class JwtUtilTest {
+  private static final String SECRET = "test-secret-key-that-is-at-least-32-bytes-long";
+
+  private JwtUtil jwtUtil;
+
+  private JwtUtil createJwtUtil(String secret, long expiration) {
+    JwtUtil util = new JwtUtil();
+    ReflectionTestUtils.setField(util, "SECRET_KEY", secret);
+    ReflectionTestUtils.setField(util, "EXPIRATION_TIME", expiration);
+    ReflectionTestUtils.setField(util, "cacheMaxSize", 100L);
+    util.init();
+    return util;
+  }
+
+  @BeforeEach
+  void setUp() {
+    jwtUtil = createJwtUtil(SECRET, 60_000);
+  }
+
+  @Test
+  void testValidateAndExtractUsername_ValidToken() {
+    String token = jwtUtil.generateToken("richard");
+
+    assertEquals("richard", jwtUtil.validateAndExtractUsername(token));
+    // second call is answered from the verified-token cache
+    assertEquals("richard", jwtUtil.validateAndExtractUsername(token));
+    assertTrue(jwtUtil.validateToken(token, "richard"));
+    assertFalse(jwtUtil.validateToken(token, "dave"));
+  }
+
+  @Test
+  void testValidateAndExtractUsername_WrongSignature() {
+    JwtUtil other = createJwtUtil("another-secret-key-that-is-at-least-32-bytes", 60_000);
+    String token = other.generateToken("richard");
+
+    assertNull(jwtUtil.validateAndExtractUsername(token));
+  }
+
+  @Test
+  void testValidateAndExtractUsername_ExpiredToken() {
+    JwtUtil expiring = createJwtUtil(SECRET, -1_000);
+    String token = expiring.generateToken("richard");
+
+    assertNull(jwtUtil.validateAndExtractUsername(token));
+  }
+
+  @Test
+  void testValidateAndExtractUsername_Malformed() {
+    assertNull(jwtUtil.validateAndExtractUsername("not-a-jwt"));
+  }
+}
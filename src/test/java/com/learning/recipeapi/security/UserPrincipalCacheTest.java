@@ -0,0 +1,63 @@
+package com.learning.recipeapi.security;
+
+import com.learning.recipeapi.entity.User;
+import com.learning.recipeapi.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class UserPrincipalCacheTest {
+  private UserRepository userRepository;
+  private UserPrincipalCache cache;
+
+  @BeforeEach
+  void setUp() {
+    userRepository = mock(UserRepository.class);
+    cache =
+        new UserPrincipalCache(
+            userRepository, new SimpleMeterRegistry(), 100, Duration.ofMinutes(5));
+  }
+
+  @Test
+  void testFindByUsername_CachesAfterFirstLoad() {
+    User user = new User("richard", "richard@richard.com", "password");
+    user.setId(1);
+    when(userRepository.findByUsername("richard")).thenReturn(Optional.of(user));
+
+    assertSame(user, cache.findByUsername("richard").get());
+    assertSame(user, cache.findByUsername("richard").get());
+
+    verify(userRepository, times(1)).findByUsername("richard");
+    assertEquals(1, cache.stats().hitCount());
+    assertEquals(1, cache.stats().missCount());
+  }
+
+  @Test
+  void testInvalidate_ReloadsUser() {
+    User user = new User("richard", "richard@richard.com", "password");
+    user.setId(1);
+    when(userRepository.findByUsername("richard")).thenReturn(Optional.of(user));
+
+    cache.findByUsername("richard");
+    cache.invalidate(user);
+    cache.findByUsername("richard");
+
+    verify(userRepository, times(2)).findByUsername("richard");
+  }
+
+  @Test
+  void testFindByUsername_UnknownUserNotCached() {
+    when(userRepository.findByUsername("nobody")).thenReturn(Optional.empty());
+
+    assertTrue(cache.findByUsername("nobody").isEmpty());
+    assertTrue(cache.findByUsername("nobody").isEmpty());
+
+    verify(userRepository, times(2)).findByUsername("nobody");
+  }
+}
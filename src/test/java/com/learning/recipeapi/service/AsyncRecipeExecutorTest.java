@@ -0,0 +1,118 @@
+package com.learning.recipeapi.service;
+
+import com.learning.recipeapi.exception.ApiException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.context.SecurityContextImpl;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AsyncRecipeExecutorTest {
+
+  private AsyncRecipeExecutor executor;
+
+  @AfterEach
+  void tearDown() {
+    SecurityContextHolder.clearContext();
+    MDC.clear();
+    if (executor != null) {
+      executor.destroy();
+    }
+  }
+
+  @Test
+  void testSupply_PropagatesSecurityContextAndMdc() throws Exception {
+    executor =
+        new AsyncRecipeExecutor(new SimpleMeterRegistry(), false, 1, 1, 10, Duration.ofSeconds(5));
+    SecurityContextHolder.setContext(
+        new SecurityContextImpl(
+            new UsernamePasswordAuthenticationToken("richard", null, List.of())));
+    MDC.put("requestId", "abc");
+
+    String result =
+        executor
+            .supply(
+                () ->
+                    SecurityContextHolder.getContext().getAuthentication().getName()
+                        + ":"
+                        + MDC.get("requestId"))
+            .get();
+
+    assertEquals("richard:abc", result);
+  }
+
+  @Test
+  void testSupply_RejectsWhenQueueIsFull() throws Exception {
+    executor =
+        new AsyncRecipeExecutor(new SimpleMeterRegistry(), false, 1, 1, 1, Duration.ofSeconds(5));
+    CountDownLatch release = new CountDownLatch(1);
+
+    CompletableFuture<Boolean> running = executor.supply(() -> awaitQuietly(release));
+    CompletableFuture<Boolean> queued = executor.supply(() -> true);
+
+    ApiException exception = assertThrows(ApiException.class, () -> executor.supply(() -> true));
+    assertEquals(HttpStatus.SERVICE_UNAVAILABLE, exception.getStatus());
+    assertEquals("ASYNC_QUEUE_FULL", exception.getErrorCode());
+
+    release.countDown();
+    assertTrue(running.get());
+    assertTrue(queued.get());
+  }
+
+  @Test
+  void testSupply_TimesOut() {
+    executor =
+        new AsyncRecipeExecutor(new SimpleMeterRegistry(), false, 1, 1, 10, Duration.ofMillis(50));
+    CountDownLatch release = new CountDownLatch(1);
+
+    CompletableFuture<Boolean> future = executor.supply(() -> awaitQuietly(release));
+
+    ExecutionException exception = assertThrows(ExecutionException.class, future::get);
+    assertInstanceOf(TimeoutException.class, exception.getCause());
+    release.countDown();
+  }
+
+  @Test
+  void testSupply_TimeoutInterruptsTask() throws Exception {
+    executor =
+        new AsyncRecipeExecutor(new SimpleMeterRegistry(), false, 1, 1, 10, Duration.ofMillis(50));
+    CountDownLatch interrupted = new CountDownLatch(1);
+
+    CompletableFuture<Boolean> future =
+        executor.supply(
+            () -> {
+              try {
+                Thread.sleep(5000);
+                return true;
+              } catch (InterruptedException e) {
+                interrupted.countDown();
+                return false;
+              }
+            });
+
+    assertThrows(ExecutionException.class, future::get);
+    // the worker thread is freed long before the task would have finished
+    assertTrue(interrupted.await(1, java.util.concurrent.TimeUnit.SECONDS));
+  }
+
+  private static boolean awaitQuietly(CountDownLatch latch) {
+    try {
+      return latch.await(5, java.util.concurrent.TimeUnit.SECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return false;
+    }
+  }
+}
@@ -0,0 +1,83 @@
+package com.learning.recipeapi.service;
+
+import com.learning.recipeapi.entity.Ingredient;
+import com.learning.recipeapi.repository.IngredientRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class IngredientDictionaryTest {
+
+  @Mock private IngredientRepository ingredientRepository;
+  @Mock private JdbcTemplate jdbcTemplate;
+  @Mock private EntityManagerFactory entityManagerFactory;
+  @Mock private PlatformTransactionManager transactionManager;
+
+  private IngredientDictionary dictionary;
+
+  @BeforeEach
+  void setUp() {
+    dictionary =
+        new IngredientDictionary(
+            ingredientRepository, jdbcTemplate, entityManagerFactory, transactionManager);
+  }
+
+  @Test
+  void testNormalize() {
+    assertEquals("olive oil", IngredientDictionary.normalize("  Olive   OIL "));
+    assertEquals("", IngredientDictionary.normalize(null));
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  void testResolve_InsertsNewNamesInOneBatchThenServesFromMemory() {
+    when(ingredientRepository.findByNormalizedNameIn(anyCollection())).thenReturn(List.of());
+    when(ingredientRepository.saveAll(anyList()))
+        .thenAnswer(
+            invocation -> {
+              List<Ingredient> ingredients = invocation.getArgument(0);
+              for (int i = 0; i < ingredients.size(); i++) {
+                ingredients.get(i).setId(100 + i);
+              }
+              return ingredients;
+            });
+
+    Map<String, Integer> first = dictionary.resolve(List.of("Salt", "salt ", "Olive  Oil", " "));
+    Map<String, Integer> second = dictionary.resolve(List.of("SALT", "olive oil"));
+
+    assertEquals(Map.of("salt", 100, "olive oil", 101), first);
+    assertEquals(first, second);
+
+    ArgumentCaptor<List<Ingredient>> captor = ArgumentCaptor.forClass(List.class);
+    verify(ingredientRepository, times(1)).saveAll(captor.capture());
+    assertEquals(
+        List.of("Salt", "Olive Oil"), captor.getValue().stream().map(Ingredient::getName).toList());
+    verify(ingredientRepository, times(1)).findByNormalizedNameIn(anyCollection());
+  }
+
+  @Test
+  void testResolve_ReusesRowsAlreadyInDatabase() {
+    Ingredient salt = new Ingredient("Salt");
+    salt.setId(7);
+    salt.setNormalizedName("salt");
+    when(ingredientRepository.findByNormalizedNameIn(anyCollection())).thenReturn(List.of(salt));
+
+    assertEquals(Map.of("salt", 7), dictionary.resolve(List.of("salt")));
+    verify(ingredientRepository, never()).saveAll(anyList());
+  }
+}
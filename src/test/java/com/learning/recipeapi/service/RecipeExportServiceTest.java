@@ -0,0 +1,64 @@
+package com.learning.recipeapi.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.learning.recipeapi.Category;
+import com.learning.recipeapi.RecipeSource;
+import com.learning.recipeapi.dto.RecipeExportRow;
+import com.learning.recipeapi.repository.RecipeRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class RecipeExportServiceTest {
+
+  @Mock private RecipeRepository recipeRepository;
+  @Mock private PlatformTransactionManager transactionManager;
+
+  private final ObjectMapper objectMapper = new ObjectMapper();
+
+  private RecipeExportRow row(Integer id, String name) {
+    return new RecipeExportRow(
+        id, name, "desc", "ingredients", "instructions", 30, 4, Category.DINNER,
+        RecipeSource.USER_CREATED, null, null, "richard");
+  }
+
+  @Test
+  void testExportRecipes_WritesOneJsonObjectPerLineAndClosesStream() throws Exception {
+    AtomicBoolean closed = new AtomicBoolean();
+    when(recipeRepository.streamExportRows(eq(1), anyInt()))
+        .thenReturn(
+            Stream.of(row(1, "Apple pie"), row(2, "Beef curry"), row(3, "Chicken stew"))
+                .onClose(() -> closed.set(true)));
+    RecipeExportService service =
+        new RecipeExportService(recipeRepository, transactionManager, objectMapper);
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+    long written = service.exportRecipes(1, out);
+
+    assertEquals(3, written);
+    assertTrue(closed.get());
+    String body = out.toString(StandardCharsets.UTF_8);
+    assertTrue(body.endsWith("\n"));
+    String[] lines = body.split("\n");
+    assertEquals(3, lines.length);
+    JsonNode first = objectMapper.readTree(lines[0]);
+    assertEquals(1, first.get("id").asInt());
+    assertEquals("Apple pie", first.get("name").asText());
+    assertEquals("DINNER", first.get("category").asText());
+    assertEquals("Beef curry", objectMapper.readTree(lines[1]).get("name").asText());
+  }
+}
@@ -0,0 +1,89 @@
+package com.learning.recipeapi.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.learning.recipeapi.entity.Recipe;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayInputStream;
+import java.time.Duration;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RecipeRenderCacheTest {
+
+  private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+  private RecipeRenderCache cache(DataSize gzipMinSize) {
+    return new RecipeRenderCache(
+        objectMapper,
+        new SimpleMeterRegistry(),
+        DataSize.ofMegabytes(1),
+        Duration.ofMinutes(10),
+        true,
+        gzipMinSize);
+  }
+
+  private Recipe recipe(Integer id, Long version, String name) {
+    Recipe recipe = new Recipe();
+    recipe.setId(id);
+    recipe.setVersion(version);
+    recipe.setName(name);
+    recipe.setInstructions("Simmer for an hour. ".repeat(100));
+    return recipe;
+  }
+
+  @Test
+  void testRender_ReusesBytesForSameVersion() {
+    RecipeRenderCache cache = cache(DataSize.ofKilobytes(1));
+
+    RecipeRenderCache.RenderedRecipe first = cache.render(recipe(1, 0L, "Beef stew"));
+    RecipeRenderCache.RenderedRecipe second = cache.render(recipe(1, 0L, "Beef stew"));
+
+    assertSame(first, second);
+  }
+
+  @Test
+  void testRender_NewVersionIsSerializedAgain() throws Exception {
+    RecipeRenderCache cache = cache(DataSize.ofKilobytes(1));
+    cache.render(recipe(1, 0L, "Beef stew"));
+
+    RecipeRenderCache.RenderedRecipe updated = cache.render(recipe(1, 1L, "Beef and ale stew"));
+
+    assertEquals(1L, updated.version());
+    assertEquals(
+        "Beef and ale stew", objectMapper.readTree(updated.json()).get("name").asText());
+  }
+
+  @Test
+  void testRender_GzipCopyMatchesJson() throws Exception {
+    RecipeRenderCache.RenderedRecipe rendered =
+        cache(DataSize.ofKilobytes(1)).render(recipe(1, 0L, "Beef stew"));
+
+    assertNotNull(rendered.gzip());
+    assertTrue(rendered.gzip().length < rendered.json().length);
+    try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(rendered.gzip()))) {
+      assertArrayEquals(rendered.json(), in.readAllBytes());
+    }
+  }
+
+  @Test
+  void testRender_SmallBodiesAreNotGzipped() {
+    RecipeRenderCache.RenderedRecipe rendered =
+        cache(DataSize.ofMegabytes(1)).render(recipe(1, 0L, "Beef stew"));
+
+    assertNull(rendered.gzip());
+  }
+
+  @Test
+  void testEvict_ForcesFreshRender() {
+    RecipeRenderCache cache = cache(DataSize.ofKilobytes(1));
+    RecipeRenderCache.RenderedRecipe first = cache.render(recipe(1, 0L, "Beef stew"));
+
+    cache.evict(1);
+
+    assertNotSame(first, cache.render(recipe(1, 0L, "Beef stew")));
+  }
+}
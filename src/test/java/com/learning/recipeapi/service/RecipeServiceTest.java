@@ -1,13 +1,33 @@
 package com.learning.recipeapi.service;
 
 import com.learning.recipeapi.*;
+import com.learning.recipeapi.dto.BatchRecipeResult;
+import com.learning.recipeapi.dto.BulkImportResult;
+import com.learning.recipeapi.dto.RecipeFilter;
+import com.learning.recipeapi.dto.RecipeSummary;
+import com.learning.recipeapi.dto.RecipeSummaryRow;
+import com.learning.recipeapi.dto.SpoonacularIngredient;
+import com.learning.recipeapi.dto.SpoonacularRecipeDetailDTO;
+import com.learning.recipeapi.dto.SpoonacularRecipeInstructionGroup;
+import com.learning.recipeapi.dto.SpoonacularRecipeStep;
+import com.learning.recipeapi.entity.Ingredient;
 import com.learning.recipeapi.entity.Recipe;
+import com.learning.recipeapi.exception.ApiException;
 import com.learning.recipeapi.entity.User;
 import com.learning.recipeapi.exception.DuplicateRecipeException;
 import com.learning.recipeapi.exception.InvalidPrepTimeException;
 import com.learning.recipeapi.exception.RecipeNotFoundException;
+import com.learning.recipeapi.repository.IngredientRepository;
 import com.learning.recipeapi.repository.RecipeRepository;
 import com.learning.recipeapi.repository.UserRepository;
+import com.learning.recipeapi.search.DuplicateIndex;
+import com.learning.recipeapi.search.FullTextSearchSupport;
+import com.learning.recipeapi.search.IngredientIndex;
+import com.learning.recipeapi.search.MatchMode;
+import com.learning.recipeapi.search.RecipeNameIndex;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Path;
+import jakarta.validation.Validator;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
@@ -17,9 +37,12 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpStatus;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.PlatformTransactionManager;
 
 import static org.mockito.ArgumentMatchers.any;
 
@@ -27,7 +50,9 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import static java.util.Arrays.asList;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -37,6 +62,18 @@ public class RecipeServiceTest {
 
   @Mock private RecipeRepository recipeRepository;
   @Mock private UserRepository userRepository;
+  @Mock private RecipeNameIndex recipeNameIndex;
+  @Mock private IngredientIndex ingredientIndex;
+  @Mock private FullTextSearchSupport fullTextSearchSupport;
+  @Mock private SpoonacularService spoonacularService;
+  @Mock private PlatformTransactionManager transactionManager;
+
+  @Mock private AsyncRecipeExecutor asyncExecutor;
+  @Mock private Validator validator;
+  @Mock private IngredientDictionary ingredientDictionary;
+  @Mock private IngredientRepository ingredientRepository;
+  @Mock private DuplicateIndex duplicateIndex;
+  @Mock private RecipeRenderCache renderCache;
 
   @InjectMocks private RecipeService recipeService;
 
@@ -128,6 +165,23 @@ public class RecipeServiceTest {
     verify(recipeRepository, times(1)).findById(999);
   }
 
+  @Test
+  void testGetRenderedRecipe_SkipsRenderingWhenClientCopyIsCurrent() {
+    Recipe recipe = createRecipe(1, "Recipe1", "Ingredient1", Category.DINNER, 30, 4);
+    recipe.setVersion(3L);
+    when(recipeRepository.findById(1)).thenReturn(Optional.of(recipe));
+
+    RecipeRenderCache.RenderedRecipe notModified =
+        recipeService.getRenderedRecipe(1, (version, updatedAt) -> version == 3L);
+
+    assertNull(notModified.json());
+    assertEquals(3L, notModified.version());
+    verify(renderCache, never()).render(any());
+
+    recipeService.getRenderedRecipe(1, (version, updatedAt) -> false);
+    verify(renderCache, times(1)).render(recipe);
+  }
+
   @Test
   void testDeleteRecipe_Success() {
     User testUser = createTestUser();
@@ -144,6 +198,7 @@ public class RecipeServiceTest {
     // Verify
     verify(recipeRepository, times(1)).findById(1);
     verify(recipeRepository, times(1)).deleteById(1);
+    verify(renderCache, times(1)).evict(1);
   }
 
   @Test
@@ -192,6 +247,46 @@ public class RecipeServiceTest {
     // verify findById and save methods
     verify(recipeRepository, times(1)).findById(1);
     verify(recipeRepository, times(1)).save(any(Recipe.class));
+    verify(renderCache, times(1)).evict(1);
+  }
+
+  @Test
+  void testUpdateRecipe_IfMatchWithStaleVersion() {
+    User testUser = createTestUser();
+
+    Recipe existingRecipe =
+        createRecipe(1, "Recipe1", "Ingredient1, Ingredient2", Category.DINNER, 30, 4);
+    existingRecipe.setUser(testUser);
+    existingRecipe.setVersion(5L);
+
+    Recipe updateRecipe =
+        createRecipe(null, "New Recipe1", "Ingredient1", Category.DINNER, 40, 4);
+
+    mockAuthenticatedUser("testuser");
+    when(recipeRepository.findById(1)).thenReturn(Optional.of(existingRecipe));
+
+    ApiException exception =
+        assertThrows(
+            ApiException.class,
+            () -> recipeService.updateRecipe(1, updateRecipe, List.of(4L)));
+
+    assertEquals(HttpStatus.PRECONDITION_FAILED, exception.getStatus());
+    verify(recipeRepository, never()).save(any(Recipe.class));
+  }
+
+  @Test
+  void testFilterRecipes_RejectsUnlistedSort() {
+    RecipeFilter filter = new RecipeFilter(null, null, null, null, null, null, null);
+
+    ApiException exception =
+        assertThrows(
+            ApiException.class,
+            () ->
+                recipeService.filterRecipes(
+                    filter, PageRequest.of(0, 10, Sort.by("instructions"))));
+
+    assertEquals("UNSUPPORTED_SORT", exception.getErrorCode());
+    verify(recipeRepository, never()).findFiltered(any(), any(), any());
   }
 
   @Test
@@ -223,6 +318,31 @@ public class RecipeServiceTest {
     verify(recipeRepository, times(1)).save(newRecipe);
   }
 
+  @Test
+  void testCreateRecipe_LinksCanonicalIngredients() {
+    User testUser = createTestUser();
+    Recipe newRecipe = createRecipe(null, "Salad", "Salt, oil", Category.LUNCH, 10, 2);
+    newRecipe.setIngredients(
+        asList(new Ingredient("Salt"), new Ingredient(" salt "), new Ingredient("Olive Oil")));
+    Ingredient salt = new Ingredient("salt");
+    salt.setId(5);
+    Ingredient oil = new Ingredient("olive oil");
+    oil.setId(9);
+
+    mockAuthenticatedUser("testuser");
+    when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(testUser));
+    when(recipeRepository.findByNameContainingIgnoreCase("Salad")).thenReturn(List.of());
+    when(ingredientDictionary.resolve(List.of("Salt", " salt ", "Olive Oil")))
+        .thenReturn(Map.of("salt", 5, "olive oil", 9));
+    when(ingredientRepository.findAllById(any())).thenReturn(List.of(salt, oil));
+    when(recipeRepository.save(any(Recipe.class)))
+        .thenAnswer(invocation -> invocation.getArgument(0));
+
+    Recipe result = recipeService.createRecipe(newRecipe);
+
+    assertEquals(List.of(salt, oil), result.getIngredients());
+  }
+
   @Test
   void testCreateRecipe_DuplicateName() {
     // Arrange
@@ -232,6 +352,8 @@ public class RecipeServiceTest {
         createRecipe(null, "Recipe1", "Ingredient1, Ingredient2", Category.DINNER, 30, 4);
 
     // Mock - name already exists (return list with existing recipe)
+    mockAuthenticatedUser("testuser");
+    when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(createTestUser()));
     when(recipeRepository.findByNameContainingIgnoreCase("Recipe1"))
         .thenReturn(Arrays.asList(existingRecipe));
 
@@ -245,6 +367,23 @@ public class RecipeServiceTest {
     verify(recipeRepository, times(1)).findByNameContainingIgnoreCase("Recipe1");
   }
 
+  @Test
+  void testCreateRecipe_NearDuplicateFromIndex() {
+    Recipe newRecipe =
+        createRecipe(null, "Classic Carrot Cake", "Carrots, flour, sugar", Category.DESSERT, 60, 8);
+    mockAuthenticatedUser("testuser");
+    when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(createTestUser()));
+    when(duplicateIndex.isReady()).thenReturn(true);
+    when(duplicateIndex.findSimilar("Classic Carrot Cake", "Carrots, flour, sugar", 1))
+        .thenReturn(List.of(4));
+
+    assertThrows(DuplicateRecipeException.class, () -> recipeService.createRecipe(newRecipe));
+
+    // the index replaces the LIKE scan once it has loaded
+    verify(recipeRepository, never()).findByNameContainingIgnoreCase(any());
+    verify(recipeRepository, never()).save(any(Recipe.class));
+  }
+
   @Test
   void testCreateRecipe_NegativePrepTime() {
     // Arrange
@@ -284,4 +423,191 @@ public class RecipeServiceTest {
     verify(recipeRepository, never()).findByNameContainingIgnoreCase(anyString());
     verify(recipeRepository, never()).save(any(Recipe.class));
   }
+
+  @Test
+  void testGetRecipesByName_UsesIndex() {
+    Recipe recipe1 = createRecipe(1, "Carrot Cake", "Carrots, Flour", Category.DESSERT, 60, 8);
+    Recipe recipe2 = createRecipe(2, "Chocolate Cake", "Chocolate, Flour", Category.DESSERT, 45, 8);
+
+    when(recipeNameIndex.isReady()).thenReturn(true);
+    when(recipeNameIndex.search(eq("cake"), anyInt())).thenReturn(asList(1, 2));
+    // repository returns them out of order - service should sort by id
+    when(recipeRepository.findAllById(asList(1, 2))).thenReturn(asList(recipe2, recipe1));
+
+    List<Recipe> result = recipeService.getRecipesByName("cake");
+
+    assertEquals(2, result.size());
+    assertEquals("Carrot Cake", result.get(0).getName());
+    verify(recipeRepository, never()).findByNameContainingIgnoreCase(anyString());
+  }
+
+  @Test
+  void testGetRecipesByName_IndexNotReady() {
+    when(recipeNameIndex.isReady()).thenReturn(false);
+    when(recipeRepository.findByNameContainingIgnoreCase("cake")).thenReturn(List.of());
+
+    List<Recipe> result = recipeService.getRecipesByName("cake");
+
+    assertTrue(result.isEmpty());
+    verify(recipeRepository, times(1)).findByNameContainingIgnoreCase("cake");
+  }
+
+  @Test
+  void testGetRecipesByIngredients_UsesIndex() {
+    Recipe recipe = createRecipe(3, "Garlic Chicken", "Chicken, Garlic", Category.DINNER, 40, 2);
+    List<String> ingredients = asList("chicken", "garlic");
+
+    when(ingredientIndex.isReady()).thenReturn(true);
+    when(ingredientIndex.search(eq(ingredients), eq(MatchMode.ALL), anyInt()))
+        .thenReturn(List.of(3));
+    when(recipeRepository.findAllById(List.of(3))).thenReturn(List.of(recipe));
+
+    List<Recipe> result = recipeService.getRecipesByIngredients(ingredients, MatchMode.ALL);
+
+    assertEquals(1, result.size());
+    assertEquals("Garlic Chicken", result.get(0).getName());
+    verify(recipeRepository, never()).findByIngredientsTextContainingIgnoreCase(anyString());
+  }
+
+  @Test
+  void testGetRecipesByIngredients_UnavailableUntilIndexLoads() {
+    when(ingredientIndex.isReady()).thenReturn(false);
+
+    ApiException exception =
+        assertThrows(
+            ApiException.class,
+            () -> recipeService.getRecipesByIngredients(List.of("eggs"), MatchMode.ALL));
+
+    assertEquals(HttpStatus.SERVICE_UNAVAILABLE, exception.getStatus());
+    assertEquals("INDEX_LOADING", exception.getErrorCode());
+    verifyNoInteractions(recipeRepository);
+  }
+
+  @Test
+  void testSearchRecipesFullText_FallsBackToLikeQueries() {
+    Recipe byName = createRecipe(1, "Garlic Bread", "Bread, Garlic", Category.LUNCH, 15, 2);
+    Recipe byIngredient = createRecipe(2, "Pasta", "Pasta, Garlic", Category.DINNER, 20, 2);
+
+    when(fullTextSearchSupport.isAvailable()).thenReturn(false);
+    when(recipeRepository.findByNameContainingIgnoreCase("garlic")).thenReturn(List.of(byName));
+    when(recipeRepository.findByIngredientsTextContainingIgnoreCase("garlic"))
+        .thenReturn(asList(byName, byIngredient));
+
+    List<Recipe> result = recipeService.searchRecipesFullText("garlic", 20);
+
+    assertEquals(2, result.size());
+    assertEquals("Garlic Bread", result.get(0).getName());
+    assertEquals("Pasta", result.get(1).getName());
+    verify(recipeRepository, never()).fullTextSearch(anyString(), anyInt());
+  }
+
+  @Test
+  void testSearchRecipeSummariesFullText_ReadsSummaryColumnsOnly() {
+    RecipeSummaryRow row = mock(RecipeSummaryRow.class);
+    when(row.getId()).thenReturn(1);
+    when(row.getName()).thenReturn("Garlic Bread");
+    when(row.getCategory()).thenReturn(Category.LUNCH);
+    when(row.getPrepTimeMinutes()).thenReturn(15);
+    when(row.getServings()).thenReturn(2);
+    when(fullTextSearchSupport.isAvailable()).thenReturn(true);
+    when(recipeRepository.fullTextSearchSummaries("garlic", 20)).thenReturn(List.of(row));
+
+    List<RecipeSummary> result = recipeService.searchRecipeSummariesFullText("garlic", 20);
+
+    assertEquals(
+        List.of(new RecipeSummary(1, "Garlic Bread", null, Category.LUNCH, 15, 2)), result);
+    verify(recipeRepository, never()).fullTextSearch(anyString(), anyInt());
+  }
+
+  @Test
+  void testImportSpoonacularRecipes_PerIdResults() {
+    User testUser = createTestUser();
+    SpoonacularRecipeDetailDTO detail =
+        new SpoonacularRecipeDetailDTO(
+            100,
+            "Pasta",
+            "pasta.jpg",
+            2,
+            20,
+            List.of(new SpoonacularIngredient("200g pasta")),
+            List.of(
+                new SpoonacularRecipeInstructionGroup(
+                    "", List.of(new SpoonacularRecipeStep(1, "Boil pasta")))),
+            List.of("dinner"));
+
+    when(recipeRepository.findImportedSpoonacularIds(1, asList(100, 200, 300)))
+        .thenReturn(List.of(300));
+    when(spoonacularService.getRecipeInformationBulk(asList(100, 200)))
+        .thenReturn(Map.of(100, detail));
+    when(recipeRepository.saveAll(any()))
+        .thenAnswer(
+            invocation -> {
+              List<Recipe> recipes = invocation.getArgument(0);
+              recipes.get(0).setId(7);
+              return recipes;
+            });
+
+    List<BulkImportResult> results =
+        recipeService.importSpoonacularRecipes(asList(100, 200, 300, 100), testUser);
+
+    assertEquals(3, results.size());
+    assertEquals(BulkImportResult.imported(100, 7), results.get(0));
+    assertEquals(BulkImportResult.Status.NOT_FOUND, results.get(1).status());
+    assertEquals(BulkImportResult.alreadyImported(300), results.get(2));
+    verify(recipeRepository, times(1)).saveAll(any());
+  }
+
+  @Test
+  void testImportSpoonacularRecipes_FailedChunkHidesErrorDetail() {
+    User testUser = createTestUser();
+    when(recipeRepository.findImportedSpoonacularIds(1, List.of(100))).thenReturn(List.of());
+    when(spoonacularService.getRecipeInformationBulk(List.of(100)))
+        .thenThrow(new IllegalStateException("402 Payment Required: {\"apiKey\": \"...\"}"));
+
+    List<BulkImportResult> results =
+        recipeService.importSpoonacularRecipes(List.of(100), testUser);
+
+    assertEquals(List.of(BulkImportResult.failed(100, "Could not import recipe")), results);
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  void testCreateRecipes_PerRecipeResults() {
+    User testUser = createTestUser();
+    Recipe valid = createRecipe(null, "Pancakes", "Flour, eggs, milk", Category.BREAKFAST, 20, 4);
+    Recipe invalid = createRecipe(null, "", "Flour", Category.BREAKFAST, 20, 4);
+    Recipe repeated = createRecipe(null, "pancakes", "Flour, eggs", Category.BREAKFAST, 20, 2);
+    Recipe existing = createRecipe(null, "Chicken Curry", "Chicken", Category.DINNER, 45, 4);
+
+    ConstraintViolation<Recipe> violation = mock(ConstraintViolation.class);
+    Path path = mock(Path.class);
+    when(path.toString()).thenReturn("name");
+    when(violation.getPropertyPath()).thenReturn(path);
+    when(violation.getMessage()).thenReturn("Recipe name cannot be left empty");
+    when(validator.validate(any(Recipe.class)))
+        .thenAnswer(
+            invocation -> invocation.getArgument(0) == invalid ? Set.of(violation) : Set.of());
+    when(duplicateIndex.isReady()).thenReturn(true);
+    when(duplicateIndex.findSimilar("Pancakes", "Flour, eggs, milk", 1)).thenReturn(List.of());
+    when(duplicateIndex.findSimilar("Chicken Curry", "Chicken", 1)).thenReturn(List.of(3));
+    when(recipeRepository.saveAll(any()))
+        .thenAnswer(
+            invocation -> {
+              List<Recipe> recipes = invocation.getArgument(0);
+              recipes.get(0).setId(11);
+              return recipes;
+            });
+
+    List<BatchRecipeResult> results =
+        recipeService.createRecipes(asList(valid, invalid, repeated, existing), testUser);
+
+    assertEquals(BatchRecipeResult.created(0, 11), results.get(0));
+    assertEquals(BatchRecipeResult.Status.INVALID, results.get(1).status());
+    assertEquals("Recipe name cannot be left empty", results.get(1).fieldErrors().get("name"));
+    assertEquals(BatchRecipeResult.Status.DUPLICATE, results.get(2).status());
+    assertEquals(BatchRecipeResult.Status.DUPLICATE, results.get(3).status());
+    assertEquals(testUser, valid.getUser());
+    assertEquals(RecipeSource.USER_CREATED, valid.getSource());
+    verify(recipeRepository, times(1)).saveAll(List.of(valid));
+  }
 }
@@ -0,0 +1,100 @@
+package com.learning.recipeapi.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SingleFlightTest {
+
+  @Test
+  void testExecute_ConcurrentCallersShareOneCall() throws Exception {
+    SingleFlight<Integer, String> singleFlight = new SingleFlight<>();
+    AtomicInteger calls = new AtomicInteger();
+    CountDownLatch release = new CountDownLatch(1);
+    ExecutorService executor = Executors.newFixedThreadPool(8);
+
+    List<Future<String>> results = new ArrayList<>();
+    for (int i = 0; i < 8; i++) {
+      results.add(
+          executor.submit(
+              () ->
+                  singleFlight.execute(
+                      42,
+                      () -> {
+                        calls.incrementAndGet();
+                        await(release);
+                        return "recipe-42";
+                      })));
+    }
+    // wait until the leader is in flight and the others have joined it
+    while (singleFlight.getCoalescedCount() < 7) {
+      Thread.sleep(5);
+    }
+    release.countDown();
+
+    for (Future<String> result : results) {
+      assertEquals("recipe-42", result.get(5, TimeUnit.SECONDS));
+    }
+    assertEquals(1, calls.get());
+    assertEquals(0, singleFlight.getInFlightCount());
+    executor.shutdown();
+  }
+
+  @Test
+  void testExecute_WaitersShareTheError() throws Exception {
+    SingleFlight<Integer, String> singleFlight = new SingleFlight<>();
+    CountDownLatch release = new CountDownLatch(1);
+    ExecutorService executor = Executors.newFixedThreadPool(2);
+
+    Future<String> leader =
+        executor.submit(
+            () ->
+                singleFlight.execute(
+                    1,
+                    () -> {
+                      await(release);
+                      throw new IllegalStateException("upstream down");
+                    }));
+    while (singleFlight.getInFlightCount() == 0) {
+      Thread.sleep(5);
+    }
+    Future<String> waiter = executor.submit(() -> singleFlight.execute(1, () -> "not called"));
+    while (singleFlight.getCoalescedCount() == 0) {
+      Thread.sleep(5);
+    }
+    release.countDown();
+
+    Exception leaderError = assertThrows(Exception.class, () -> leader.get(5, TimeUnit.SECONDS));
+    Exception waiterError = assertThrows(Exception.class, () -> waiter.get(5, TimeUnit.SECONDS));
+    assertSame(leaderError.getCause(), waiterError.getCause());
+    executor.shutdown();
+  }
+
+  @Test
+  void testExecute_NothingRememberedAfterCompletion() {
+    SingleFlight<Integer, String> singleFlight = new SingleFlight<>();
+    AtomicInteger calls = new AtomicInteger();
+
+    singleFlight.execute(1, () -> "a" + calls.incrementAndGet());
+    String second = singleFlight.execute(1, () -> "a" + calls.incrementAndGet());
+
+    assertEquals("a2", second);
+  }
+
+  private static void await(CountDownLatch latch) {
+    try {
+      latch.await(5, TimeUnit.SECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
@@ -0,0 +1,152 @@
+package com.learning.recipeapi.service;
+
+import com.learning.recipeapi.entity.OutboxEvent;
+import com.learning.recipeapi.entity.User;
+import com.learning.recipeapi.repository.OutboxEventRepository;
+import com.learning.recipeapi.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class SpoonacularConnectWorkerTest {
+
+  @Mock private OutboxEventRepository outboxEventRepository;
+  @Mock private UserRepository userRepository;
+  @Mock private SpoonacularService spoonacularService;
+  @Mock private PlatformTransactionManager transactionManager;
+
+  private SimpleMeterRegistry meterRegistry;
+  private SpoonacularConnectWorker worker;
+
+  @BeforeEach
+  void setUp() {
+    meterRegistry = new SimpleMeterRegistry();
+    worker =
+        new SpoonacularConnectWorker(
+            outboxEventRepository,
+            userRepository,
+            spoonacularService,
+            transactionManager,
+            meterRegistry);
+  }
+
+  private User createUser(Integer id, String username, String email) {
+    User user = new User();
+    user.setId(id);
+    user.setUsername(username);
+    user.setEmail(email);
+    return user;
+  }
+
+  private void givenDue(OutboxEvent... events) {
+    when(outboxEventRepository.findDue(eq(OutboxEvent.Status.PENDING), any(), any()))
+        .thenReturn(List.of(events));
+    when(outboxEventRepository.saveAll(anyList()))
+        .thenAnswer(invocation -> invocation.getArgument(0));
+  }
+
+  @Test
+  void testPoll_UpdatesPendingGaugeOncePerPoll() {
+    givenDue();
+    when(outboxEventRepository.countByStatus(OutboxEvent.Status.PENDING)).thenReturn(3L);
+
+    worker.poll();
+
+    assertEquals(3, meterRegistry.get("outbox.events.pending").gauge().value());
+    assertEquals(3, meterRegistry.get("outbox.events.pending").gauge().value());
+    // scrapes read the count kept by the worker, they don't query the table
+    verify(outboxEventRepository, times(1)).countByStatus(OutboxEvent.Status.PENDING);
+  }
+
+  @Test
+  void testDrain_StoresHashAndMarksDone() {
+    OutboxEvent event = new OutboxEvent(OutboxEvent.Type.CONNECT_SPOONACULAR_USER, 1);
+    User user = createUser(1, "Richard", "richard@richard.com");
+    givenDue(event);
+    when(userRepository.findOneById(1)).thenReturn(Optional.of(user));
+    when(spoonacularService.connectUser("Richard", "richard@richard.com")).thenReturn("hash-123");
+
+    assertEquals(1, worker.drain());
+
+    assertEquals("hash-123", user.getSpoonacularHash());
+    assertEquals(OutboxEvent.Status.DONE, event.getStatus());
+    assertEquals(1, event.getAttempts());
+    assertNotNull(event.getProcessedAt());
+    verify(userRepository).save(user);
+  }
+
+  @Test
+  void testDrain_FailureSchedulesRetryWithBackoff() {
+    OutboxEvent event = new OutboxEvent(OutboxEvent.Type.CONNECT_SPOONACULAR_USER, 1);
+    givenDue(event);
+    when(userRepository.findOneById(1))
+        .thenReturn(Optional.of(createUser(1, "Richard", "richard@richard.com")));
+    when(spoonacularService.connectUser(any(), any()))
+        .thenThrow(new ResourceAccessException("timeout"));
+
+    worker.drain();
+
+    assertEquals(OutboxEvent.Status.PENDING, event.getStatus());
+    assertTrue(event.getNextAttemptAt().isAfter(LocalDateTime.now().plusSeconds(5)));
+    assertTrue(event.getLastError().contains("timeout"));
+    verify(userRepository, never()).save(any(User.class));
+  }
+
+  @Test
+  void testDrain_GivesUpAfterMaxAttempts() {
+    OutboxEvent event = new OutboxEvent(OutboxEvent.Type.CONNECT_SPOONACULAR_USER, 1);
+    event.setAttempts(9);
+    givenDue(event);
+    when(userRepository.findOneById(1))
+        .thenReturn(Optional.of(createUser(1, "Richard", "richard@richard.com")));
+    when(spoonacularService.connectUser(any(), any()))
+        .thenThrow(new ResourceAccessException("timeout"));
+
+    worker.drain();
+
+    assertEquals(10, event.getAttempts());
+    assertEquals(OutboxEvent.Status.FAILED, event.getStatus());
+  }
+
+  @Test
+  void testDrain_AlreadyConnectedUserSkipsCall() {
+    OutboxEvent event = new OutboxEvent(OutboxEvent.Type.CONNECT_SPOONACULAR_USER, 1);
+    User user = createUser(1, "Richard", "richard@richard.com");
+    user.setSpoonacularHash("existing");
+    givenDue(event);
+    when(userRepository.findOneById(1)).thenReturn(Optional.of(user));
+
+    worker.drain();
+
+    assertEquals(OutboxEvent.Status.DONE, event.getStatus());
+    verify(spoonacularService, never()).connectUser(any(), any());
+  }
+
+  @Test
+  void testBackoff_GrowsExponentiallyAndIsCapped() {
+    Duration first = worker.backoff(1);
+    Duration third = worker.backoff(3);
+    Duration huge = worker.backoff(50);
+
+    assertTrue(first.compareTo(Duration.ofSeconds(10)) >= 0);
+    assertTrue(first.compareTo(Duration.ofSeconds(12)) <= 0);
+    assertTrue(third.compareTo(Duration.ofSeconds(40)) >= 0);
+    assertTrue(huge.compareTo(Duration.ofMinutes(72)) <= 0);
+  }
+}
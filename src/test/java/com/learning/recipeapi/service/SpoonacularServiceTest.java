@@ -0,0 +1,102 @@
+package com.learning.recipeapi.service;
+
+import com.learning.recipeapi.dto.SpoonacularRecipeDTO;
+import com.learning.recipeapi.dto.SpoonacularRecipeDetailDTO;
+import com.learning.recipeapi.dto.SpoonacularSearchResponse;
+import com.learning.recipeapi.exception.RecipeNotFoundException;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+public class SpoonacularServiceTest {
+  private RestTemplate restTemplate;
+  private SpoonacularResponseCache responseCache;
+  private CircuitBreaker circuitBreaker;
+  private SpoonacularService spoonacularService;
+
+  @BeforeEach
+  void setUp() {
+    restTemplate = mock(RestTemplate.class);
+    responseCache =
+        new SpoonacularResponseCache(
+            new SimpleMeterRegistry(),
+            100,
+            Duration.ofMinutes(10),
+            100,
+            Duration.ofHours(24),
+            Duration.ofMinutes(2));
+    circuitBreaker = CircuitBreaker.ofDefaults("spoonacular");
+    spoonacularService =
+        new SpoonacularService(
+            restTemplate, responseCache, circuitBreaker, Bulkhead.ofDefaults("spoonacular"));
+    ReflectionTestUtils.setField(spoonacularService, "apiKey", "test-key");
+    ReflectionTestUtils.setField(spoonacularService, "baseUrl", "https://api.example.com");
+  }
+
+  @Test
+  void testSearchRecipes_IdenticalQueriesHitCache() {
+    SpoonacularSearchResponse response =
+        new SpoonacularSearchResponse(
+            List.of(new SpoonacularRecipeDTO(1, "Pasta", "img.jpg", 2, 20)), 1);
+    when(restTemplate.getForObject(anyString(), eq(SpoonacularSearchResponse.class)))
+        .thenReturn(response);
+
+    spoonacularService.searchRecipes("Pasta", 5);
+    SpoonacularSearchResponse result = spoonacularService.searchRecipes(" pasta ", 5);
+
+    assertEquals("Pasta", result.results().get(0).title());
+    verify(restTemplate, times(1)).getForObject(anyString(), eq(SpoonacularSearchResponse.class));
+    assertEquals(1, responseCache.searchStats().hitCount());
+  }
+
+  @Test
+  void testGetRecipeInformation_CachesDetails() {
+    SpoonacularRecipeDetailDTO detail =
+        new SpoonacularRecipeDetailDTO(
+            42, "Pasta", "img.jpg", 2, 20, List.of(), List.of(), List.of());
+    when(restTemplate.getForObject(anyString(), eq(SpoonacularRecipeDetailDTO.class)))
+        .thenReturn(detail);
+
+    spoonacularService.getRecipeInformation(42);
+    spoonacularService.getRecipeInformation(42);
+
+    verify(restTemplate, times(1)).getForObject(anyString(), eq(SpoonacularRecipeDetailDTO.class));
+  }
+
+  @Test
+  void testGetRecipeInformation_NotFoundIsNegativelyCached() {
+    when(restTemplate.getForObject(anyString(), eq(SpoonacularRecipeDetailDTO.class)))
+        .thenThrow(
+            HttpClientErrorException.create(HttpStatus.NOT_FOUND, "Not Found", null, null, null));
+
+    assertThrows(RecipeNotFoundException.class, () -> spoonacularService.getRecipeInformation(7));
+    assertThrows(RecipeNotFoundException.class, () -> spoonacularService.getRecipeInformation(7));
+
+    verify(restTemplate, times(1)).getForObject(anyString(), eq(SpoonacularRecipeDetailDTO.class));
+  }
+
+  @Test
+  void testSearchRecipes_OpenCircuitFailsFast() {
+    circuitBreaker.transitionToOpenState();
+
+    assertThrows(
+        CallNotPermittedException.class, () -> spoonacularService.searchRecipes("pasta", 5));
+
+    verify(restTemplate, never()).getForObject(anyString(), eq(SpoonacularSearchResponse.class));
+  }
+}
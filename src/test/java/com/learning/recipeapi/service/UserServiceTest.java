@@ -1,13 +1,20 @@
 package com.learning.recipeapi.service;
 
+import com.learning.recipeapi.dto.AuthResponse;
+import com.learning.recipeapi.dto.RegisterRequest;
+import com.learning.recipeapi.entity.OutboxEvent;
 import com.learning.recipeapi.entity.Recipe;
 import com.learning.recipeapi.entity.User;
+import com.learning.recipeapi.repository.OutboxEventRepository;
 import com.learning.recipeapi.repository.UserRepository;
+import com.learning.recipeapi.security.JwtUtil;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.crypto.password.PasswordEncoder;
 
 import java.util.Collections;
 import java.util.Optional;
@@ -21,6 +28,9 @@ import static org.mockito.Mockito.*;
 public class UserServiceTest {
 
   @Mock private UserRepository userRepository;
+  @Mock private PasswordEncoder passwordEncoder;
+  @Mock private JwtUtil jwtUtil;
+  @Mock private OutboxEventRepository outboxEventRepository;
 
   @InjectMocks private UserService userService;
 
@@ -97,4 +107,29 @@ public class UserServiceTest {
 
     verify(userRepository, times(1)).findByUsername("Richard");
   }
+
+  @Test
+  void testRegisterUser_WritesOutboxEventInsteadOfCallingSpoonacular() {
+    RegisterRequest request = new RegisterRequest("Richard", "richard@richard.com", "password");
+    User savedUser = createUser(1, "Richard", "richard@richard.com", "hashed");
+
+    when(userRepository.existsByUsername("Richard")).thenReturn(false);
+    when(userRepository.existsByEmail("richard@richard.com")).thenReturn(false);
+    when(passwordEncoder.encode("password")).thenReturn("hashed");
+    when(userRepository.save(any(User.class))).thenReturn(savedUser);
+    when(jwtUtil.generateToken("Richard")).thenReturn("token");
+
+    AuthResponse response = userService.registerUser(request);
+
+    assertEquals("token", response.token());
+
+    ArgumentCaptor<OutboxEvent> captor = ArgumentCaptor.forClass(OutboxEvent.class);
+    verify(outboxEventRepository, times(1)).save(captor.capture());
+    assertEquals(OutboxEvent.Type.CONNECT_SPOONACULAR_USER, captor.getValue().getType());
+    assertEquals(1, captor.getValue().getAggregateId());
+    assertEquals(OutboxEvent.Status.PENDING, captor.getValue().getStatus());
+
+    // a single insert, the hash is filled in later by the worker
+    verify(userRepository, times(1)).save(any(User.class));
+  }
 }
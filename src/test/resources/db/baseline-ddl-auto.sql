@@ -0,0 +1,11 @@
+-- What ddl-auto=update created for the entities before migrations were introduced (Hibernate's
+-- own DDL, constraint names included). SchemaMigrationTest upgrades this with the migrations
+create table ingredient (id integer generated by default as identity, name varchar(255), primary key (id));
+create table recipe (id integer generated by default as identity, prep_time_minutes integer, servings integer, spoonacular_id integer, user_id integer, name varchar(100) not null, ingredients_text TEXT not null, instructions TEXT not null, category varchar(255) check (category in ('BREAKFAST','LUNCH','DINNER','DESSERT')), description varchar(255), image_url varchar(255), source varchar(255) check (source in ('USER_CREATED','SPOONACULAR')), primary key (id));
+create table recipe_ingredients (ingredient_id integer not null, recipe_id integer not null);
+create table users (id integer generated by default as identity, created_at timestamp(6), email varchar(255) not null unique, password varchar(255) not null, spoonacular_hash varchar(255), username varchar(255) not null unique, primary key (id));
+alter table if exists recipe add constraint FK5mx01yw4j003wisa2aqmwir6l foreign key (user_id) references users;
+alter table if exists recipe_ingredients add constraint FK115hxprua4ai0chlhicwmuhna foreign key (ingredient_id) references ingredient;
+alter table if exists recipe_ingredients add constraint FKhnsmvxdlwxqq6x2wbgnoef5gr foreign key (recipe_id) references recipe;
+insert into users (username, email, password) values ('richard', 'richard@richard.com', 'password');
+insert into recipe (name, ingredients_text, instructions, category, source, user_id) values ('Beef stew', 'beef, onions', 'simmer', 'DINNER', 'USER_CREATED', 1);